@@ -0,0 +1,178 @@
+package com.bench;
+
+import com.SimpleFinJarApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end load against an embedded instance: boots SimpleFinJarApplication on a random port with the
+ * bench profile (in-memory H2, no network or database needed) and runs a closed-loop user mix per client:
+ * list jars 50%, deposit 25%, report 20%, login 5%. Prints throughput and latency percentiles per operation,
+ * plus the server-side allocation rate (bytes allocated by non-client threads during the measured window).
+ *
+ * <pre>java -cp target/benchmarks.jar com.bench.EmbeddedLoadTest [clients] [seconds] [warmupSeconds]</pre>
+ */
+public class EmbeddedLoadTest {
+    private static final String EMAIL = "john@example.com";
+    private static final String PASSWORD = "password";
+    // 20-slot schedule giving the 50/25/20/5 mix: 0=jars, 1=deposit, 2=report, 3=login
+    private static final int[] MIX = {0, 1, 0, 2, 0, 1, 0, 2, 0, 1, 0, 2, 0, 1, 0, 2, 0, 1, 3, 0};
+    private static final String[] NAMES = {"GET /api/jars", "POST /api/deposits", "GET /api/reports/summary", "POST /api/auth/login"};
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        int warmup = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(SimpleFinJarApplication.class)
+                .profiles("bench")
+                .properties("server.port=0")
+                .run()) {
+            String base = "http://localhost:" + ctx.getEnvironment().getProperty("local.server.port");
+            String token = LoadGenerator.login(base, EMAIL, PASSWORD);
+            long jarId = firstJarId(base, token);
+            Map<String, Object> report = run(base, token, jarId, clients, warmup, seconds);
+            System.out.println(new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(report));
+        }
+    }
+
+    static Map<String, Object> run(String base, String token, long jarId, int clients, int warmupSeconds, int seconds) throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + warmupSeconds * 1_000_000_000L;
+        long deadline = measureFrom + seconds * 1_000_000_000L;
+        CountDownLatch done = new CountDownLatch(clients);
+        long[][][] samples = new long[clients][NAMES.length][];
+        int[][] counts = new int[clients][NAMES.length];
+        AtomicLong[] errors = new AtomicLong[NAMES.length];
+        for (int i = 0; i < NAMES.length; i++) errors[i] = new AtomicLong();
+        String report = base + "/api/reports/summary";
+        Map<String, Object> deposit = new HashMap<>();
+        deposit.put("jarId", jarId);
+        deposit.put("amount", 1.25);
+        deposit.put("description", "load");
+        Map<String, Object> credentials = new HashMap<>();
+        credentials.put("email", EMAIL);
+        credentials.put("password", PASSWORD);
+
+        AllocationMeter alloc = new AllocationMeter();
+        for (int c = 0; c < clients; c++) {
+            int client = c;
+            for (int op = 0; op < NAMES.length; op++) samples[c][op] = new long[1024];
+            Thread t = new Thread(() -> {
+                try {
+                    int i = client; // stagger the mix across clients
+                    boolean measuring = false;
+                    long now;
+                    while ((now = System.nanoTime()) < deadline) {
+                        if (!measuring && now >= measureFrom) {
+                            measuring = true;
+                            alloc.startOnce();
+                        }
+                        int op = MIX[i++ % MIX.length];
+                        boolean ok;
+                        switch (op) {
+                            case 0: ok = LoadGenerator.get(base + "/api/jars", token); break;
+                            case 1: ok = LoadGenerator.post(base + "/api/deposits", token, deposit); break;
+                            case 2: ok = LoadGenerator.get(report, token); break;
+                            default: ok = LoadGenerator.post(base + "/api/auth/login", null, credentials); break;
+                        }
+                        long end = System.nanoTime();
+                        if (!measuring) continue;
+                        if (!ok) errors[op].incrementAndGet();
+                        int n = counts[client][op];
+                        if (n == samples[client][op].length) samples[client][op] = Arrays.copyOf(samples[client][op], n * 2);
+                        samples[client][op][n] = end - now;
+                        counts[client][op] = n + 1;
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "load-" + c);
+            t.setDaemon(true);
+            t.start();
+        }
+        done.await();
+        long allocatedBytes = alloc.stop();
+
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("clients", clients);
+        out.put("seconds", seconds);
+        long totalRequests = 0;
+        for (int op = 0; op < NAMES.length; op++) {
+            int total = 0;
+            for (int c = 0; c < clients; c++) total += counts[c][op];
+            long[] all = new long[total];
+            int pos = 0;
+            for (int c = 0; c < clients; c++) {
+                System.arraycopy(samples[c][op], 0, all, pos, counts[c][op]);
+                pos += counts[c][op];
+            }
+            totalRequests += total;
+            out.put(NAMES[op], LoadGenerator.summarize(all, seconds, errors[op].get()));
+        }
+        out.put("throughputPerSec", totalRequests / (double) Math.max(1, seconds));
+        if (allocatedBytes >= 0) {
+            out.put("serverAllocMBPerSec", allocatedBytes / 1e6 / Math.max(1, seconds));
+            out.put("serverAllocBytesPerRequest", totalRequests == 0 ? 0 : allocatedBytes / totalRequests);
+        }
+        return out;
+    }
+
+    static long firstJarId(String base, String token) throws Exception {
+        HttpURLConnection c = (HttpURLConnection) new URL(base + "/api/jars?flat=1").openConnection();
+        c.setRequestProperty("Authorization", "Bearer " + token);
+        try (InputStream in = c.getInputStream()) {
+            JsonNode jars = new ObjectMapper().readTree(in);
+            if (jars.size() == 0) throw new IllegalStateException("Seed user has no jars");
+            return jars.get(0).get("id").asLong();
+        }
+    }
+
+    /**
+     * Sums per-thread allocated bytes (HotSpot ThreadMXBean) over server-side threads, i.e. every live thread
+     * except the load clients. Threads that exit inside the window are not counted. Returns -1 if unsupported.
+     */
+    static final class AllocationMeter {
+        private final java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        private final Map<Long, Long> baseline = new HashMap<>();
+        private volatile boolean started;
+
+        synchronized void startOnce() {
+            if (started) return;
+            started = true;
+            if (!(threads instanceof com.sun.management.ThreadMXBean)) return;
+            for (Thread t : Thread.getAllStackTraces().keySet()) {
+                if (!t.getName().startsWith("load-")) baseline.put(t.getId(), allocated(t.getId()));
+            }
+        }
+
+        synchronized long stop() {
+            if (!started || !(threads instanceof com.sun.management.ThreadMXBean)) return -1;
+            long total = 0;
+            for (Thread t : Thread.getAllStackTraces().keySet()) {
+                if (t.getName().startsWith("load-")) continue;
+                long now = allocated(t.getId());
+                if (now < 0) continue;
+                Long before = baseline.get(t.getId());
+                total += now - (before == null || before < 0 ? 0 : before);
+            }
+            return total;
+        }
+
+        private long allocated(long threadId) {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(threadId);
+        }
+    }
+}
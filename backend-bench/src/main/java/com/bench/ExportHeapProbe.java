@@ -0,0 +1,105 @@
+package com.bench;
+
+import com.SimpleFinJarApplication;
+import com.service.DepositExportService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Heap profile of /api/deposits/export as history grows: seeds an H2 database up to each size and reports peak heap
+ * growth while exporting. Flat numbers across sizes mean constant-memory streaming. The database is a file in a
+ * temporary directory rather than the bench profile's in-memory one, whose rows would share the probe's heap
+ * (1M deposits do not fit in -Xmx128m before anything is exported).
+ *
+ * <pre>java -Xmx128m -cp target/benchmarks.jar com.bench.ExportHeapProbe [maxRows]</pre>
+ */
+public class ExportHeapProbe {
+    // Explicit ids far above what the table generator hands out to the demo seed
+    private static final long SEED_ID_BASE = 100_000_000L;
+
+    public static void main(String[] args) throws Exception {
+        int maxRows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Path dir = Files.createTempDirectory("export-heap-probe");
+        String url = "jdbc:h2:file:" + dir.resolve("finjar").toAbsolutePath()
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;LAZY_QUERY_EXECUTION=TRUE";
+        try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(SimpleFinJarApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("bench")
+                .run("--spring.datasource.url=" + url)) {
+            JdbcTemplate jdbc = ctx.getBean(JdbcTemplate.class);
+            DepositExportService export = ctx.getBean(DepositExportService.class);
+            Long userId = jdbc.queryForObject("SELECT MIN(id) FROM users", Long.class);
+            Long jarId = jdbc.queryForObject("SELECT MIN(id) FROM jars WHERE user_id = ?", Long.class, userId);
+
+            System.out.printf("%12s %10s %12s %14s%n", "rows", "format", "time(ms)", "peakHeap(MB)");
+            int seeded = jdbc.queryForObject("SELECT COUNT(*) FROM deposits WHERE user_id = ?", Integer.class, userId);
+            for (int size = 10_000; size <= maxRows; size *= 10) {
+                seeded = seed(jdbc, userId, jarId, seeded, size);
+                for (DepositExportService.Format format : DepositExportService.Format.values()) {
+                    measure(export, userId, format, size);
+                }
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(dir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(f -> f.toFile().delete());
+            }
+        }
+    }
+
+    private static int seed(JdbcTemplate jdbc, Long userId, Long jarId, int from, int to) {
+        final int batch = 5_000;
+        long base = System.currentTimeMillis() - to * 1000L;
+        for (int i = from; i < to; i += batch) {
+            List<Object[]> rows = new ArrayList<>(batch);
+            for (int j = i; j < Math.min(to, i + batch); j++) {
+                rows.add(new Object[]{SEED_ID_BASE + j, jarId, userId, (j % 500) * 100L + 25, "seed #" + j, new Timestamp(base + j * 1000L)});
+            }
+            jdbc.batchUpdate("INSERT INTO deposits (id, jar_id, user_id, amount_cents, description, created_at) VALUES (?,?,?,?,?,?)", rows);
+        }
+        return to;
+    }
+
+    private static void measure(DepositExportService export, Long userId, DepositExportService.Format format, int size) throws Exception {
+        MemoryMXBean mem = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long baseline = mem.getHeapMemoryUsage().getUsed();
+        AtomicLong peak = new AtomicLong(baseline);
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread sampler = new Thread(() -> {
+            while (running.get()) {
+                long used = mem.getHeapMemoryUsage().getUsed();
+                peak.accumulateAndGet(used, Math::max);
+                try { Thread.sleep(5); } catch (InterruptedException e) { return; }
+            }
+        }, "heap-sampler");
+        sampler.setDaemon(true);
+        sampler.start();
+        long start = System.nanoTime();
+        long rows = export.export(userId, format, new DiscardingOutputStream());
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        running.set(false);
+        sampler.join();
+        System.out.printf("%12d %10s %12d %14.1f%n", rows, format.extension, elapsedMs, (peak.get() - baseline) / (1024.0 * 1024.0));
+        if (rows < size) throw new IllegalStateException("Exported " + rows + " rows, expected at least " + size);
+    }
+
+    private static final class DiscardingOutputStream extends OutputStream {
+        @Override public void write(int b) { }
+        @Override public void write(byte[] b, int off, int len) { }
+    }
+}
@@ -0,0 +1,60 @@
+package com.bench;
+
+import com.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.SecretKey;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bearer token verification cost: parser built per call (previous JwtUtil.parse),
+ * prebuilt parser, and verified-token cache hit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+    private static final String SECRET = "ChangeMe_AtLeast32Chars_Long_Secret_Key_123";
+
+    private JwtUtil jwtUtil;
+    private SecretKey key;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = new JwtUtil(SECRET, TimeUnit.HOURS.toMillis(1));
+        key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        Map<String,Object> claims = new HashMap<>();
+        claims.put("email", "john@example.com");
+        claims.put("name", "John Doe");
+        claims.put("role", "USER");
+        claims.put("userId", 1L);
+        claims.put("tv", 0);
+        token = jwtUtil.generateToken("john@example.com", claims);
+        jwtUtil.parse(token); // prime the cache
+    }
+
+    @Benchmark
+    public Jws<Claims> coldParse() {
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+    }
+
+    @Benchmark
+    public Jws<Claims> prebuiltParser() {
+        return jwtUtil.verify(token);
+    }
+
+    @Benchmark
+    public Jws<Claims> cacheHit() {
+        return jwtUtil.parse(token);
+    }
+}
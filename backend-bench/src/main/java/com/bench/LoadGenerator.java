@@ -0,0 +1,189 @@
+package com.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load against a running backend: each client logs in once, then alternates
+ * GET /api/jars and GET /api/deposits?limit=50 until the deadline. Reports throughput and latency
+ * percentiles per endpoint, excluding the warm-up window.
+ *
+ * <pre>java -cp target/benchmarks.jar com.bench.LoadGenerator [baseUrl] [clients] [seconds] [warmupSeconds]</pre>
+ *
+ * Run it once against the default (platform thread) mode and once with FINJAR_VIRTUAL_THREADS=true on a
+ * Java 21 build, same client count, to compare the two modes.
+ */
+public class LoadGenerator {
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    static final class Endpoint {
+        final String name;
+        final String path;
+        final AtomicLong errors = new AtomicLong();
+        Endpoint(String name, String path) { this.name = name; this.path = path; }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String base = args.length > 0 ? args[0] : "http://localhost:8080";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        int warmup = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+        String email = System.getProperty("email", "john@example.com");
+        String password = System.getProperty("password", "password");
+
+        String token = login(base, email, password);
+        Endpoint[] endpoints = {new Endpoint("GET /api/jars", "/api/jars"), new Endpoint("GET /api/deposits", "/api/deposits?limit=50")};
+        Map<String, Object> report = run(base, token, endpoints, clients, warmup, seconds);
+        System.out.println(JSON.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+    }
+
+    static Map<String, Object> run(String base, String token, Endpoint[] endpoints, int clients, int warmupSeconds, int seconds) throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + warmupSeconds * 1_000_000_000L;
+        long deadline = measureFrom + seconds * 1_000_000_000L;
+        CountDownLatch done = new CountDownLatch(clients);
+        List<long[][]> samples = new ArrayList<>();
+        int[][] counts = new int[clients][endpoints.length];
+        for (int c = 0; c < clients; c++) {
+            long[][] mine = new long[endpoints.length][1024];
+            samples.add(mine);
+            int client = c;
+            Thread t = new Thread(() -> {
+                try {
+                    int i = 0;
+                    long now;
+                    while ((now = System.nanoTime()) < deadline) {
+                        int e = i++ % endpoints.length;
+                        boolean ok = get(base + endpoints[e].path, token);
+                        long end = System.nanoTime();
+                        if (now < measureFrom) continue;
+                        if (!ok) endpoints[e].errors.incrementAndGet();
+                        long[] buf = mine[e];
+                        int n = counts[client][e];
+                        if (n == buf.length) mine[e] = buf = Arrays.copyOf(buf, n * 2);
+                        buf[n] = end - now;
+                        counts[client][e] = n + 1;
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "load-" + c);
+            t.setDaemon(true);
+            t.start();
+        }
+        done.await();
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("clients", clients);
+        report.put("seconds", seconds);
+        for (int e = 0; e < endpoints.length; e++) {
+            int total = 0;
+            for (int c = 0; c < clients; c++) total += counts[c][e];
+            long[] all = new long[total];
+            int pos = 0;
+            for (int c = 0; c < clients; c++) {
+                System.arraycopy(samples.get(c)[e], 0, all, pos, counts[c][e]);
+                pos += counts[c][e];
+            }
+            report.put(endpoints[e].name, summarize(all, seconds, endpoints[e].errors.get()));
+        }
+        return report;
+    }
+
+    static Map<String, Object> summarize(long[] latenciesNanos, int seconds, long errors) {
+        Arrays.sort(latenciesNanos);
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("requests", latenciesNanos.length);
+        m.put("errors", errors);
+        m.put("throughputPerSec", latenciesNanos.length / (double) Math.max(1, seconds));
+        m.put("p50Ms", percentileMs(latenciesNanos, 0.50));
+        m.put("p95Ms", percentileMs(latenciesNanos, 0.95));
+        m.put("p99Ms", percentileMs(latenciesNanos, 0.99));
+        m.put("p999Ms", percentileMs(latenciesNanos, 0.999));
+        m.put("maxMs", latenciesNanos.length == 0 ? 0.0 : latenciesNanos[latenciesNanos.length - 1] / 1e6);
+        return m;
+    }
+
+    static double percentileMs(long[] sorted, double p) {
+        if (sorted.length == 0) return 0.0;
+        int idx = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, idx)] / 1e6;
+    }
+
+    static String login(String base, String email, String password) throws IOException {
+        Map<String, String> body = new LinkedHashMap<>();
+        body.put("email", email);
+        body.put("password", password);
+        HttpURLConnection c = (HttpURLConnection) new URL(base + "/api/auth/login").openConnection();
+        c.setRequestMethod("POST");
+        c.setDoOutput(true);
+        c.setRequestProperty("Content-Type", "application/json");
+        try (OutputStream out = c.getOutputStream()) {
+            JSON.writeValue(out, body);
+        }
+        if (c.getResponseCode() != 200) throw new IOException("Login failed: HTTP " + c.getResponseCode());
+        try (InputStream in = c.getInputStream()) {
+            JsonNode resp = JSON.readTree(in);
+            return resp.get("token").asText();
+        }
+    }
+
+    // Drains the body so the keep-alive connection is reused
+    static boolean get(String url, String token) {
+        try {
+            HttpURLConnection c = (HttpURLConnection) new URL(url).openConnection();
+            c.setRequestProperty("Authorization", "Bearer " + token);
+            int status = c.getResponseCode();
+            InputStream in = status < 400 ? c.getInputStream() : c.getErrorStream();
+            if (in != null) {
+                try (InputStream body = in) {
+                    drain(body);
+                }
+            }
+            return status < 400;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    static boolean post(String url, String token, Object body) {
+        try {
+            HttpURLConnection c = (HttpURLConnection) new URL(url).openConnection();
+            c.setRequestMethod("POST");
+            c.setDoOutput(true);
+            c.setRequestProperty("Content-Type", "application/json");
+            if (token != null) c.setRequestProperty("Authorization", "Bearer " + token);
+            try (OutputStream out = c.getOutputStream()) {
+                JSON.writeValue(out, body);
+            }
+            int status = c.getResponseCode();
+            InputStream in = status < 400 ? c.getInputStream() : c.getErrorStream();
+            if (in != null) {
+                try (InputStream resp = in) {
+                    drain(resp);
+                }
+            }
+            return status < 400;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void drain(InputStream in) throws IOException {
+        byte[] buf = new byte[8192];
+        while (in.read(buf) != -1) { }
+    }
+}
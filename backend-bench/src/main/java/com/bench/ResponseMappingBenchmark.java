@@ -0,0 +1,77 @@
+package com.bench;
+
+import com.dto.DepositView;
+import com.dto.JarView;
+import com.model.DepositEntity;
+import com.model.JarEntity;
+import com.model.UserEntity;
+import com.util.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-row response mapping (formerly jarToMap/depositToMap, now JarView.from/DepositView.from)
+ * and the progress computation (formerly computeProgress, now Money.progress).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseMappingBenchmark {
+    private JarEntity jar;
+    private DepositEntity deposit;
+    private long currentCents;
+    private long targetCents;
+
+    @Setup
+    public void setup() {
+        UserEntity user = new UserEntity();
+        setId(user, 1L);
+        user.setEmail("john@example.com");
+        jar = new JarEntity();
+        setId(jar, 7L);
+        jar.setUser(user);
+        jar.setName("Emergency Fund");
+        jar.setTargetCents(100000L);
+        jar.setCurrentCents(53512L);
+        jar.setDescription("Basic safety net");
+        deposit = new DepositEntity();
+        setId(deposit, 42L);
+        deposit.setUser(user);
+        deposit.setJar(jar);
+        deposit.setAmountCents(3050L);
+        deposit.setDescription("Monthly save");
+        currentCents = jar.getCurrentCents();
+        targetCents = jar.getTargetCents();
+    }
+
+    // entities have no id setters; ids are normally assigned by Hibernate
+    private static void setId(Object entity, Long id) {
+        try {
+            Field f = entity.getClass().getDeclaredField("id");
+            f.setAccessible(true);
+            f.set(entity, id);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public JarView jarView() {
+        return JarView.from(jar);
+    }
+
+    @Benchmark
+    public DepositView depositView() {
+        return DepositView.from(deposit);
+    }
+
+    @Benchmark
+    public double progress() {
+        return Money.progress(currentCents, targetCents);
+    }
+}
@@ -0,0 +1,82 @@
+package com.bench;
+
+import com.dto.Envelope;
+import com.dto.JarView;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /api/jars body for a 30-jar user: per-jar HashMaps in a HashMap envelope (previous jarToMap/success)
+ * vs JarView rows in an Envelope, with and without Afterburner. Run with -prof gc; divide B/op by 30 for bytes per jar.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+    private static final int JARS = 30;
+
+    private static final OutputStream DISCARD = new OutputStream() {
+        @Override public void write(int b) { }
+        @Override public void write(byte[] b, int off, int len) { }
+    };
+
+    private ObjectMapper plain;
+    private ObjectMapper afterburner;
+    private List<JarView> views;
+
+    @Setup
+    public void setup() {
+        plain = new ObjectMapper();
+        afterburner = new ObjectMapper().registerModule(new AfterburnerModule());
+        views = new ArrayList<>(JARS);
+        Instant created = Instant.parse("2024-01-01T00:00:00Z");
+        for (long i = 1; i <= JARS; i++) {
+            views.add(new JarView(i, "Jar " + i, 100000L * i, 2500L * i, "Saving for item " + i, created.plusSeconds(i), 1L));
+        }
+    }
+
+    @Benchmark
+    public void hashMaps() throws IOException {
+        List<Map<String,Object>> list = new ArrayList<>(JARS);
+        for (JarView v : views) {
+            Map<String,Object> m = new HashMap<>();
+            m.put("id", v.getId());
+            m.put("name", v.getName());
+            m.put("targetAmount", v.getTargetAmount());
+            m.put("currentAmount", v.getCurrentAmount());
+            m.put("description", v.getDescription());
+            m.put("createdAt", v.getCreatedAt());
+            m.put("progress", v.getProgress());
+            m.put("userId", v.getUserId());
+            list.add(m);
+        }
+        Map<String,Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("total", list.size());
+        response.put("jars", list);
+        plain.writeValue(DISCARD, response);
+    }
+
+    @Benchmark
+    public void views() throws IOException {
+        plain.writeValue(DISCARD, Envelope.list("jars", views));
+    }
+
+    @Benchmark
+    public void viewsAfterburner() throws IOException {
+        afterburner.writeValue(DISCARD, Envelope.list("jars", views));
+    }
+}
@@ -34,9 +34,9 @@ $MAVEN_CMD clean package -DskipTests \
     -Djava.home=$JAVA_HOME
 
 # Check result
-if [ -f "target/FinJar-0.0.1-SNAPSHOT.jar" ]; then
+if [ -f "target/FinJar-0.0.1-SNAPSHOT-exec.jar" ]; then
     echo "✅ SUCCESS! JAR file created:"
-    ls -la target/FinJar-0.0.1-SNAPSHOT.jar
+    ls -la target/FinJar-0.0.1-SNAPSHOT-exec.jar
 else
     echo "❌ FAILED! No JAR file found."
     echo "Target directory:"
@@ -56,11 +56,11 @@ echo "Building with system Maven (bypassing wrapper)..."
     -Djava.home=$JAVA_HOME
 
 # Check build result
-if [ -f "target/FinJar-0.0.1-SNAPSHOT.jar" ]; then
+if [ -f "target/FinJar-0.0.1-SNAPSHOT-exec.jar" ]; then
     echo "✅ Build completed successfully!"
     echo "JAR file details:"
-    ls -la target/FinJar-0.0.1-SNAPSHOT.jar
-    echo "JAR file size: $(du -h target/FinJar-0.0.1-SNAPSHOT.jar | cut -f1)"
+    ls -la target/FinJar-0.0.1-SNAPSHOT-exec.jar
+    echo "JAR file size: $(du -h target/FinJar-0.0.1-SNAPSHOT-exec.jar | cut -f1)"
 else
     echo "❌ Build failed - JAR file not found!"
     
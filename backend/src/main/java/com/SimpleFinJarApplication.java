@@ -2,14 +2,22 @@ package com;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
-import javax.annotation.PostConstruct;
-import org.springframework.transaction.annotation.Transactional;
 
 import com.model.UserEntity;
 import com.model.JarEntity;
@@ -17,15 +25,33 @@ import com.model.DepositEntity;
 import com.repo.UserRepo;
 import com.repo.JarRepo;
 import com.repo.DepositRepo;
+import com.service.AuthRateLimiter;
 import com.service.AuthService;
+import com.service.DbHealthSampler;
+import com.service.DepositDraft;
+import com.service.DepositExportService;
+import com.service.DepositPage;
+import com.service.JarEventStream;
+import com.service.StreamTickets;
 import com.service.JarService;
-import javax.sql.DataSource;
-import java.sql.Connection;
-import java.sql.SQLException;
+import com.service.ListingVersions;
+import com.service.ReportService;
+import com.dto.DepositView;
+import com.dto.Envelope;
+import com.dto.JarView;
+import com.dto.LedgerEventView;
+import com.dto.UserView;
+import com.util.AuthPrincipal;
+import com.util.JwtUtil;
+import com.util.Money;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 
 @SpringBootApplication
 @RestController
-@CrossOrigin(origins = {"http://localhost:5173", "https://finjar-chi.vercel.app", "https://finjar-frontend.vercel.app", "https://finjar.vercel.app"})
+@CrossOrigin(origins = {"http://localhost:5173", "https://finjar-chi.vercel.app", "https://finjar-frontend.vercel.app", "https://finjar.vercel.app"},
+        exposedHeaders = HttpHeaders.ETAG)
 public class SimpleFinJarApplication {
 
     private final UserRepo userRepo;
@@ -33,37 +59,43 @@ public class SimpleFinJarApplication {
     private final DepositRepo depositRepo;
     private final AuthService authService;
     private final JarService jarService;
-    private final DataSource dataSource;
+    private final ReportService reportService;
+    private final DepositExportService depositExportService;
+    private final DbHealthSampler dbHealth;
+    private final JwtUtil jwtUtil;
+    private final JarEventStream jarEventStream;
+    private final StreamTickets streamTickets;
+    private final ListingVersions listingVersions;
+    private final AuthRateLimiter authRateLimiter;
 
     public SimpleFinJarApplication(UserRepo userRepo, JarRepo jarRepo, DepositRepo depositRepo,
-                                   AuthService authService, JarService jarService, DataSource dataSource) {
+                                   AuthService authService, JarService jarService, ReportService reportService,
+                                   DepositExportService depositExportService, DbHealthSampler dbHealth, JwtUtil jwtUtil,
+                                   JarEventStream jarEventStream, StreamTickets streamTickets,
+                                   ListingVersions listingVersions, AuthRateLimiter authRateLimiter) {
         this.userRepo = userRepo;
         this.jarRepo = jarRepo;
         this.depositRepo = depositRepo;
         this.authService = authService;
         this.jarService = jarService;
-        this.dataSource = dataSource;
-    }
-
-    @PostConstruct
-    public void seedIfEmpty() {
-        if (userRepo.count() == 0) {
-            UserEntity demo = authService.register("john@example.com", "John Doe", "password");
-            JarEntity j1 = jarService.create(demo, "Emergency Fund", 1000.0, "Basic safety net");
-            j1.setCurrentAmount(500.0); jarRepo.save(j1);
-            JarEntity j2 = jarService.create(demo, "Vacation", 2500.0, "Trip to mountains");
-            j2.setCurrentAmount(850.0); jarRepo.save(j2);
-            JarEntity j3 = jarService.create(demo, "New Laptop", 1800.0, "Upgrade gear");
-            j3.setCurrentAmount(300.0); jarRepo.save(j3);
-            jarService.addDeposit(demo, j1, 300.0, "Initial seed");
-            jarService.addDeposit(demo, j1, 200.0, "Monthly save");
-        }
+        this.reportService = reportService;
+        this.depositExportService = depositExportService;
+        this.dbHealth = dbHealth;
+        this.jwtUtil = jwtUtil;
+        this.jarEventStream = jarEventStream;
+        this.streamTickets = streamTickets;
+        this.listingVersions = listingVersions;
+        this.authRateLimiter = authRateLimiter;
     }
 
     public static void main(String[] args) {
         SpringApplication.run(SimpleFinJarApplication.class, args);
     }
 
+    private static final Envelope<Void> UNAUTHORIZED = Envelope.error("Unauthorized");
+    // Listings with ETags: the browser may keep them but must revalidate every time
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private static final String APP_VERSION = "0.1.0-dev"; // adjust when deploying
 
     @GetMapping("/api/version")
@@ -85,189 +117,155 @@ public class SimpleFinJarApplication {
         return ResponseEntity.ok("UP");
     }
     
+    // Health answers come from DbHealthSampler's last background probe; requests never open a connection
     @GetMapping("/api/health")
     public ResponseEntity<Map<String, Object>> apiHealth() {
+        DbHealthSampler.Snapshot db = dbHealth.current();
         Map<String, Object> response = new HashMap<>();
-        response.put("status", "UP");
-        response.put("message", "FinJar API v3 is fully operational");
+        response.put("status", db.status);
+        response.put("message", db.isUp() ? "FinJar API v3 is fully operational" : "Database unavailable");
         response.put("timestamp", System.currentTimeMillis());
-        return ResponseEntity.ok(response);
+        response.put("db", db.toMap(System.currentTimeMillis()));
+        return ResponseEntity.status("DOWN".equals(db.status) ? 503 : 200).body(response);
     }
-    
+
     @GetMapping("/api/db/ping")
     public ResponseEntity<Map<String,Object>> dbPing() {
-        Map<String,Object> resp = new HashMap<>();
-        long start = System.currentTimeMillis();
-        try (Connection c = dataSource.getConnection()) {
-            if (c.isValid(5)) {
-                resp.put("success", true);
-                resp.put("latencyMs", System.currentTimeMillis() - start);
-                resp.put("message", "DB connection OK");
-                return ResponseEntity.ok(resp);
-            } else {
-                resp.put("success", false);
-                resp.put("message", "Connection not valid");
-                return ResponseEntity.status(500).body(resp);
-            }
-        } catch (SQLException e) {
-            resp.put("success", false);
-            resp.put("error", e.getClass().getSimpleName());
-            resp.put("message", e.getMessage());
-            return ResponseEntity.status(500).body(resp);
-        }
+        DbHealthSampler.Snapshot db = dbHealth.current();
+        Map<String,Object> resp = db.toMap(System.currentTimeMillis());
+        resp.put("success", db.isUp());
+        resp.put("message", db.isUp() ? "DB connection OK" : db.error != null ? db.error : "DB status " + db.status);
+        return ResponseEntity.status(db.isUp() ? 200 : 503).body(resp);
     }
     
+    // Login/register complete asynchronously: BCrypt runs on PasswordHasher's bounded pool, not the request thread
     @PostMapping("/api/auth/login")
-    public ResponseEntity<Map<String, Object>> login(@RequestBody(required = false) Map<String, Object> loginRequest) {
+    public CompletableFuture<ResponseEntity<Envelope<?>>> login(@RequestBody(required = false) Map<String, Object> loginRequest) {
         if (loginRequest == null || !loginRequest.containsKey("email") || !loginRequest.containsKey("password")) {
-            return ResponseEntity.badRequest().body(error("Missing email or password"));
+            return done(ResponseEntity.badRequest().body(error("Missing email or password")));
         }
         String email = String.valueOf(loginRequest.get("email")).toLowerCase();
         String password = String.valueOf(loginRequest.get("password"));
-        UserEntity user = authService.authenticate(email, password);
-        if (user == null) return ResponseEntity.status(401).body(error("Invalid credentials"));
-        String token = generateJwt(user.getEmail(), user.getName(), user.getId());
-        Map<String,Object> sanitized = new HashMap<>();
-        sanitized.put("id", user.getId());
-        sanitized.put("email", user.getEmail());
-        sanitized.put("name", user.getName());
-        Map<String,Object> resp = success("Login successful", "user", sanitized);
-        resp.put("token", token);
-        return ResponseEntity.ok(resp);
+        long retryAfter = authRateLimiter.checkEmail(email);
+        if (retryAfter > 0) return done(tooManyAttempts(retryAfter));
+        return authService.authenticate(email, password).<ResponseEntity<Envelope<?>>>handle((user, ex) -> {
+            if (ex != null) return authFailure(ex);
+            if (user == null) return ResponseEntity.status(401).body(error("Invalid credentials"));
+            String token = generateJwt(user);
+            return ResponseEntity.ok(success("Login successful", "user", UserView.from(user)).with("token", token));
+        });
     }
 
     // Alias endpoint without /api prefix (fallback for older frontend bundles)
     @PostMapping("/auth/login")
-    public ResponseEntity<Map<String, Object>> loginAlias(@RequestBody(required = false) Map<String, Object> loginRequest) {
+    public CompletableFuture<ResponseEntity<Envelope<?>>> loginAlias(@RequestBody(required = false) Map<String, Object> loginRequest) {
         return login(loginRequest);
     }
     
     @PostMapping("/api/auth/register")
-    public ResponseEntity<Map<String, Object>> register(@RequestBody(required = false) Map<String, Object> registerRequest) {
+    public CompletableFuture<ResponseEntity<Envelope<?>>> register(@RequestBody(required = false) Map<String, Object> registerRequest) {
         if (registerRequest == null || !registerRequest.containsKey("email") || !registerRequest.containsKey("password") || !registerRequest.containsKey("name")) {
-            return ResponseEntity.badRequest().body(error("Missing required fields: name, email, password"));
+            return done(ResponseEntity.badRequest().body(error("Missing required fields: name, email, password")));
         }
         String email = String.valueOf(registerRequest.get("email")).toLowerCase();
         String name = String.valueOf(registerRequest.get("name"));
         String password = String.valueOf(registerRequest.get("password"));
-        try {
-            UserEntity user = authService.register(email, name, password);
-            String token = generateJwt(user.getEmail(), user.getName(), user.getId());
-            Map<String,Object> sanitized = new HashMap<>();
-            sanitized.put("id", user.getId());
-            sanitized.put("email", user.getEmail());
-            sanitized.put("name", user.getName());
-            Map<String,Object> resp = success("Registration successful", "user", sanitized);
-            resp.put("token", token);
-            return ResponseEntity.ok(resp);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(409).body(error(e.getMessage()));
-        }
+        long retryAfter = authRateLimiter.checkEmail(email);
+        if (retryAfter > 0) return done(tooManyAttempts(retryAfter));
+        return authService.register(email, name, password).<ResponseEntity<Envelope<?>>>handle((user, ex) -> {
+            if (ex != null) return authFailure(ex);
+            String token = generateJwt(user);
+            return ResponseEntity.ok(success("Registration successful", "user", UserView.from(user)).with("token", token));
+        });
     }
 
     // Alias endpoint without /api prefix (fallback)
     @PostMapping("/auth/register")
-    public ResponseEntity<Map<String, Object>> registerAlias(@RequestBody(required = false) Map<String, Object> registerRequest) {
+    public CompletableFuture<ResponseEntity<Envelope<?>>> registerAlias(@RequestBody(required = false) Map<String, Object> registerRequest) {
         return register(registerRequest);
     }
 
     // Additional user-oriented alias paths (frontend used /api/users/register mistakenly)
     @PostMapping("/api/users/register")
-    public ResponseEntity<Map<String, Object>> registerUsersAlias(@RequestBody(required = false) Map<String, Object> registerRequest) {
+    public CompletableFuture<ResponseEntity<Envelope<?>>> registerUsersAlias(@RequestBody(required = false) Map<String, Object> registerRequest) {
         return register(registerRequest);
     }
 
     @PostMapping("/api/users/login")
-    public ResponseEntity<Map<String, Object>> loginUsersAlias(@RequestBody(required = false) Map<String, Object> loginRequest) {
+    public CompletableFuture<ResponseEntity<Envelope<?>>> loginUsersAlias(@RequestBody(required = false) Map<String, Object> loginRequest) {
         return login(loginRequest);
     }
 
-    // Real JWT util (lazy init). Replace secret via FINJAR_JWT_SECRET env var in production.
-    private com.util.JwtUtil jwtUtil;
-    private com.util.JwtUtil jwt() {
-        if (jwtUtil == null) {
-            Map<String,String> env = System.getenv();
-            String secret = env.getOrDefault("FINJAR_JWT_SECRET", env.getOrDefault("JWT_SECRET", "ChangeMe_AtLeast32Chars_Long_Secret_Key_123"));
-            String expMsStr = env.getOrDefault("FINJAR_JWT_EXPIRATION_MS", env.getOrDefault("JWT_EXPIRATION", "3600000"));
-            long expMs;
-            try { expMs = Long.parseLong(expMsStr.trim()); } catch (Exception e) { expMs = 3600000L; }
-            // If value looks like seconds (e.g. 86400), convert to ms.
-            if (expMs > 0 && expMs < 1000000L) { // < ~16.6 minutes in ms -> assume seconds
-                expMs = expMs * 1000L;
-            }
-            jwtUtil = new com.util.JwtUtil(secret, expMs);
-        }
-        return jwtUtil;
-    }
-    private String generateJwt(String email, String name, Long userId) {
+    // JWT carries userId/email/name plus the token version ("tv"); AuthPrincipal arguments are built from these claims alone.
+    private String generateJwt(UserEntity user) {
         Map<String,Object> claims = new HashMap<>();
-        claims.put("email", email);
-        claims.put("name", name);
+        claims.put("email", user.getEmail());
+        claims.put("name", user.getName());
         claims.put("role", "USER");
-        claims.put("userId", userId);
-        return jwt().generateToken(email, claims);
+        claims.put("userId", user.getId());
+        claims.put("tv", user.getTokenVersion());
+        return jwtUtil.generateToken(user.getEmail(), claims);
     }
-    private boolean validToken(String authHeader) {
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) return false;
-        String token = authHeader.substring(7);
-        return jwt().isValid(token);
+
+    // Reference proxy for associations; no SELECT is issued for the user row.
+    private UserEntity userRef(AuthPrincipal principal) {
+        return userRepo.getReferenceById(principal.getId());
     }
 
-    private Map<String,Object> authUser(String authHeader) {
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) return null;
-        String token = authHeader.substring(7);
-        try {
-            io.jsonwebtoken.Jws<io.jsonwebtoken.Claims> jws = jwt().parse(token);
-            Object uidObj = jws.getBody().get("userId");
-            if (uidObj == null) return null;
-            Long uid = Long.parseLong(uidObj.toString());
-            return userRepo.findById(uid).map(u -> {
-                Map<String,Object> m = new HashMap<>();
-                m.put("id", u.getId());
-                m.put("email", u.getEmail());
-                m.put("name", u.getName());
-                return m;
-            }).orElse(null);
-        } catch (Exception e) {
-            return null;
+    // legacy sanitizeUser removed after JPA migration
+
+    private static CompletableFuture<ResponseEntity<Envelope<?>>> done(ResponseEntity<Envelope<?>> response) {
+        return CompletableFuture.completedFuture(response);
+    }
+
+    // Per-email throttle (the per-IP one answers before the body is read, in AuthRateLimitInterceptor)
+    private static ResponseEntity<Envelope<?>> tooManyAttempts(long retryAfterSeconds) {
+        return ResponseEntity.status(429).header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds)).body(error("Too many attempts, retry later"));
+    }
+
+    // Hashing pool saturated -> 429; duplicate email (pre-check or unique index) -> 409; anything else propagates
+    private static ResponseEntity<Envelope<?>> authFailure(Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        if (cause instanceof RejectedExecutionException) {
+            return ResponseEntity.status(429).header(HttpHeaders.RETRY_AFTER, "1").body(error("Too many login attempts in progress, retry shortly"));
         }
+        if (cause instanceof IllegalArgumentException) return ResponseEntity.status(409).body(error(cause.getMessage()));
+        if (cause instanceof DataIntegrityViolationException) return ResponseEntity.status(409).body(error("Email already registered"));
+        if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+        throw new CompletionException(cause);
     }
 
-    // legacy sanitizeUser removed after JPA migration
+    private static ResponseEntity<?> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+    }
 
-    private ResponseEntity<Map<String, Object>> unauthorized() {
-        Map<String, Object> m = new HashMap<>();
-        m.put("success", false);
-        m.put("message", "Unauthorized");
-        return ResponseEntity.status(401).body(m);
+    private ResponseEntity<Envelope<?>> unauthorized() {
+        return ResponseEntity.status(401).body(UNAUTHORIZED);
     }
 
     @PostMapping("/api/auth/logout")
-    public ResponseEntity<Map<String, Object>> logout(@RequestHeader(value = "Authorization", required = false) String auth) {
-        if (!validToken(auth)) return unauthorized();
-        Map<String, Object> m = new HashMap<>();
-        m.put("success", true);
-        m.put("message", "Logged out");
-        return ResponseEntity.ok(m);
+    public ResponseEntity<Envelope<?>> logout(AuthPrincipal principal,
+                                             @RequestParam(name = "all", required = false) Boolean all) {
+        if (principal == null) return unauthorized();
+        // all=true revokes every token issued to the user (token version bump)
+        if (Boolean.TRUE.equals(all)) authService.revokeTokens(principal.getId());
+        return ResponseEntity.ok(success("Logged out", null, null));
     }
 
     @GetMapping("/api/user/profile")
-    public ResponseEntity<Map<String, Object>> userProfile(@RequestHeader(value = "Authorization", required = false) String auth) {
-        Map<String,Object> user = authUser(auth);
+    public ResponseEntity<Envelope<?>> userProfile(AuthPrincipal principal) {
+        if (principal == null) return unauthorized();
+        // Profile reads the row: name/email in an older token may predate a profile update.
+        UserEntity user = userRepo.findById(principal.getId()).orElse(null);
         if (user == null) return unauthorized();
-    Map<String,Object> sanitized = new HashMap<>();
-    sanitized.put("id", user.get("id"));
-    sanitized.put("email", user.get("email"));
-    sanitized.put("name", user.get("name"));
-    return ResponseEntity.ok(success("Profile fetched", "user", sanitized));
+        return ResponseEntity.ok(success("Profile fetched", "user", UserView.from(user)));
     }
 
     @PutMapping("/api/user/update")
-    public ResponseEntity<Map<String, Object>> updateProfile(@RequestHeader(value = "Authorization", required = false) String auth,
-                                                             @RequestBody(required = false) Map<String, Object> body) {
-        Map<String,Object> u = authUser(auth);
-        if (u == null) return unauthorized();
-        UserEntity userEntity = userRepo.findById((Long) u.get("id")).orElse(null);
+    public ResponseEntity<Envelope<?>> updateProfile(AuthPrincipal principal,
+                                                    @RequestBody(required = false) Map<String, Object> body) {
+        if (principal == null) return unauthorized();
+        UserEntity userEntity = userRepo.findById(principal.getId()).orElse(null);
         if (userEntity == null) return unauthorized();
         if (body == null) body = new HashMap<>();
         if (body.containsKey("name")) userEntity.setName(String.valueOf(body.get("name")));
@@ -279,257 +277,354 @@ public class SimpleFinJarApplication {
             userEntity.setEmail(newEmail);
         }
         userRepo.save(userEntity);
-        Map<String,Object> sanitized = new HashMap<>();
-        sanitized.put("id", userEntity.getId());
-        sanitized.put("email", userEntity.getEmail());
-        sanitized.put("name", userEntity.getName());
-        return ResponseEntity.ok(success("Profile updated", "user", sanitized));
+        return ResponseEntity.ok(success("Profile updated", "user", UserView.from(userEntity))
+                .with("token", generateJwt(userEntity))); // refreshed claims (email/name)
     }
     
+    // Conditional GET: a current If-None-Match is answered 304 from ListingVersions alone (no query, no JSON)
     @GetMapping("/api/jars")
-    public ResponseEntity<?> getJars(@RequestHeader(value = "Authorization", required = false) String auth,
-                                      @RequestParam(name = "flat", required = false) Integer flat) {
-        Map<String,Object> u = authUser(auth);
-        if (u == null) return unauthorized();
-        UserEntity userEntity = userRepo.findById((Long) u.get("id")).orElse(null);
-        if (userEntity == null) return unauthorized();
-        List<Map<String,Object>> list = jarService.list(userEntity).stream().map(this::jarToMap).collect(Collectors.toList());
-        if (flat != null && flat == 1) return ResponseEntity.ok(list);
-        Map<String,Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("total", list.size());
-        response.put("jars", list);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<?> getJars(AuthPrincipal principal,
+                                      @RequestParam(name = "flat", required = false) Integer flat,
+                                      @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (principal == null) return unauthorized();
+        boolean flatList = flat != null && flat == 1;
+        String etag = listingVersions.jarsTag(principal.getId(), flatList);
+        if (ListingVersions.matches(ifNoneMatch, etag)) return notModified(etag);
+        List<JarView> list = jarService.listViews(principal.getId());
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(flatList ? list : Envelope.list("jars", list));
+    }
+
+    /**
+     * Server-Sent Events for the caller's jars: "ready" (fetch /api/jars now), then "balance" {jarId, delta},
+     * "created"/"updated" {jarId, jar}, "deleted" {jarId}, "deposits" {jarId} (deposit text edited), and "resync"
+     * (refetch) if the client fell behind.
+     * EventSource cannot send the Authorization header: clients pass a ticket from POST /api/stream/tickets,
+     * good for one connection, and fetch a new one to reconnect.
+     */
+    @GetMapping(value = "/api/stream/jars", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamJars(@RequestParam(name = "ticket", required = false) String ticket) {
+        Long userId = streamTickets.redeem(ticket);
+        if (userId == null) return ResponseEntity.status(401).build();
+        return ResponseEntity.ok(jarEventStream.subscribe(userId));
+    }
+
+    // Single-use ticket for the next GET /api/stream/jars, so no JWT goes into the stream URL
+    @PostMapping("/api/stream/tickets")
+    public ResponseEntity<Envelope<?>> streamTicket(AuthPrincipal principal) {
+        if (principal == null) return unauthorized();
+        return ResponseEntity.ok(success("Stream ticket issued", "ticket", streamTickets.issue(principal.getId()))
+                .with("expiresInMs", streamTickets.getTtlMillis()));
     }
 
     @PostMapping("/api/jars")
-    public ResponseEntity<Map<String, Object>> createJar(@RequestHeader(value = "Authorization", required = false) String auth,
-                                                         @RequestBody(required = false) Map<String, Object> body) {
-        Map<String,Object> u = authUser(auth);
-        if (u == null) return unauthorized();
+    public ResponseEntity<Envelope<?>> createJar(AuthPrincipal principal,
+                                                @RequestBody(required = false) Map<String, Object> body) {
+        if (principal == null) return unauthorized();
         if (body == null) return ResponseEntity.badRequest().body(error("Missing request body"));
         if (!body.containsKey("name") && body.containsKey("title")) body.put("name", body.get("title"));
         if (!body.containsKey("name") || !body.containsKey("targetAmount")) {
             return ResponseEntity.badRequest().body(error("Missing required fields: name (or title), targetAmount"));
         }
-        UserEntity userEntity = userRepo.findById((Long) u.get("id")).orElse(null);
-        if (userEntity == null) return unauthorized();
-        JarEntity jar = jarService.create(userEntity, String.valueOf(body.get("name")), toDouble(body.get("targetAmount"),0.0), String.valueOf(body.getOrDefault("description","")));
-        return ResponseEntity.ok(success("Jar created", "jar", jarToMap(jar)));
+        LocalDate targetDate;
+        try {
+            targetDate = toDate(body.get("targetDate"));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(error("Invalid targetDate, expected yyyy-MM-dd"));
+        }
+        JarEntity jar = jarService.create(userRef(principal), String.valueOf(body.get("name")), toCents(body.get("targetAmount"), 0L), String.valueOf(body.getOrDefault("description","")), targetDate);
+        return ResponseEntity.ok(success("Jar created", "jar", jarService.view(jar)));
     }
 
     @PutMapping("/api/jars/{id}")
-    public ResponseEntity<Map<String, Object>> updateJar(@RequestHeader(value = "Authorization", required = false) String auth,
-                                                         @PathVariable Long id,
-                                                         @RequestBody(required = false) Map<String, Object> body) {
-        Map<String,Object> u = authUser(auth);
-        if (u == null) return unauthorized();
-        JarEntity jar = jarRepo.findById(id).orElse(null);
-        if (jar == null) return ResponseEntity.status(404).body(error("Jar not found"));
-        if (!jar.getUser().getId().equals(u.get("id"))) return ResponseEntity.status(403).body(error("Forbidden"));
-        if (body != null) {
-            jarService.update(jar,
-                body != null && body.containsKey("name") ? String.valueOf(body.get("name")) : null,
-                body != null && body.containsKey("targetAmount") ? toDouble(body.get("targetAmount"), jar.getTargetAmount()) : null,
-                body != null && body.containsKey("description") ? String.valueOf(body.get("description")) : null);
+    public ResponseEntity<Envelope<?>> updateJar(AuthPrincipal principal,
+                                                @PathVariable Long id,
+                                                @RequestBody(required = false) Map<String, Object> body) {
+        if (principal == null) return unauthorized();
+        if (body == null) body = new HashMap<>();
+        LocalDate targetDate;
+        try {
+            targetDate = toDate(body.get("targetDate")); // null or "" clears it
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(error("Invalid targetDate, expected yyyy-MM-dd"));
         }
-        return ResponseEntity.ok(success("Jar updated", "jar", jarToMap(jar)));
+        // Lookups are scoped to the caller, so another user's jar is simply "not found"
+        JarEntity jar = jarService.update(id, principal.getId(),
+                body.containsKey("name") ? String.valueOf(body.get("name")) : null,
+                body.containsKey("targetAmount") ? Money.toCents(body.get("targetAmount")) : null,
+                body.containsKey("description") ? String.valueOf(body.get("description")) : null,
+                body.containsKey("targetDate"), targetDate);
+        if (jar == null) return ResponseEntity.status(404).body(error("Jar not found"));
+        return ResponseEntity.ok(success("Jar updated", "jar", jarService.view(jar)));
     }
 
     @DeleteMapping("/api/jars/{id}")
-    public ResponseEntity<Map<String, Object>> deleteJar(@RequestHeader(value = "Authorization", required = false) String auth,
-                                                         @PathVariable Long id) {
-        Map<String,Object> u = authUser(auth);
-        if (u == null) return unauthorized();
-        JarEntity jar = jarRepo.findById(id).orElse(null);
+    public ResponseEntity<Envelope<?>> deleteJar(AuthPrincipal principal,
+                                                @PathVariable Long id) {
+        if (principal == null) return unauthorized();
+        JarEntity jar = jarRepo.findByIdAndUserId(id, principal.getId()).orElse(null);
         if (jar == null) return ResponseEntity.status(404).body(error("Jar not found"));
-        if (!jar.getUser().getId().equals(u.get("id"))) return ResponseEntity.status(403).body(error("Forbidden"));
         jarService.delete(jar);
-        return ResponseEntity.ok(success("Jar deleted", "jar", jarToMap(jar)));
+        return ResponseEntity.ok(success("Jar deleted", "jar", JarView.from(jar)));
     }
 
     @PostMapping("/api/deposits")
-    public ResponseEntity<Map<String, Object>> createDeposit(@RequestHeader(value = "Authorization", required = false) String auth,
-                                                             @RequestBody(required = false) Map<String, Object> body) {
-        Map<String,Object> u = authUser(auth);
-        if (u == null) return unauthorized();
+    public ResponseEntity<Envelope<?>> createDeposit(AuthPrincipal principal,
+                                                    @RequestBody(required = false) Map<String, Object> body) {
+        if (principal == null) return unauthorized();
         if (body == null || !body.containsKey("jarId") || !body.containsKey("amount")) return ResponseEntity.badRequest().body(error("Missing required fields: jarId, amount"));
-        JarEntity jar = jarRepo.findById(toLong(body.get("jarId"))).orElse(null);
-        if (jar == null || !jar.getUser().getId().equals(u.get("id"))) return ResponseEntity.badRequest().body(error("Jar not found"));
-        UserEntity userEntity = userRepo.findById((Long) u.get("id")).orElse(null);
-        if (userEntity == null) return unauthorized();
-        Double amount = toDouble(body.get("amount"), 0.0);
+        Long jarId = toLong(body.get("jarId"));
+        long amountCents = toCents(body.get("amount"), 0L);
         String description = String.valueOf(body.getOrDefault("description", ""));
-        DepositEntity dep = jarService.addDeposit(userEntity, jar, amount, description);
-        return ResponseEntity.ok(success("Deposit added", "deposit", depositToMap(dep)));
+        DepositEntity dep = jarId == null ? null : jarService.addDeposit(principal.getId(), jarId, amountCents, description);
+        if (dep == null) return ResponseEntity.badRequest().body(error("Jar not found"));
+        return ResponseEntity.ok(success("Deposit added", "deposit", DepositView.from(dep)));
+    }
+
+    private static final int MAX_BATCH_DEPOSITS = 1000;
+
+    // Bulk import (e.g. bank statements): body is an array of {jarId, amount, description} or {"deposits": [...]}.
+    // Ownership is checked with one owner-scoped select; all rows are inserted in one transaction or none are.
+    @PostMapping("/api/deposits/batch")
+    public ResponseEntity<Envelope<?>> createDepositsBatch(AuthPrincipal principal,
+                                                          @RequestBody(required = false) Object body) {
+        if (principal == null) return unauthorized();
+        Object raw = body instanceof Map ? ((Map<?, ?>) body).get("deposits") : body;
+        if (!(raw instanceof List) || ((List<?>) raw).isEmpty()) return ResponseEntity.badRequest().body(error("Expected a non-empty array of deposits"));
+        List<?> items = (List<?>) raw;
+        if (items.size() > MAX_BATCH_DEPOSITS) return ResponseEntity.badRequest().body(error("At most " + MAX_BATCH_DEPOSITS + " deposits per batch"));
+        List<DepositDraft> drafts = new ArrayList<>(items.size());
+        Set<Long> jarIds = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            Object item = items.get(i);
+            Map<?, ?> m = item instanceof Map ? (Map<?, ?>) item : null;
+            Long jarId = m == null ? null : toLong(m.get("jarId"));
+            Long amountCents = m == null ? null : Money.toCents(m.get("amount"));
+            if (jarId == null || amountCents == null) return ResponseEntity.badRequest().body(error("Deposit #" + i + ": jarId and amount are required"));
+            Object desc = m.get("description");
+            drafts.add(new DepositDraft(jarId, amountCents, desc == null ? "" : String.valueOf(desc)));
+            jarIds.add(jarId);
+        }
+        Map<Long, JarEntity> jars = new HashMap<>();
+        for (JarEntity jar : jarRepo.findAllByIdInAndUserId(jarIds, principal.getId())) jars.put(jar.getId(), jar);
+        for (Long jarId : jarIds) {
+            if (!jars.containsKey(jarId)) return ResponseEntity.badRequest().body(error("Jar not found: " + jarId));
+        }
+        List<DepositView> list = jarService.addDeposits(userRef(principal), jars, drafts).stream()
+                .map(DepositView::from).collect(Collectors.toList());
+        return ResponseEntity.ok(success("Deposits added", "deposits", list).with("total", list.size()));
     }
 
     // Path variant used by frontend: /api/deposits/jar/{jarId}
     @PostMapping("/api/deposits/jar/{jarId}")
-    public ResponseEntity<Map<String, Object>> createDepositForJar(@RequestHeader(value = "Authorization", required = false) String auth,
-                                                                   @PathVariable Long jarId,
-                                                                   @RequestBody(required = false) Map<String, Object> body) {
-        Map<String,Object> u = authUser(auth);
-        if (u == null) return unauthorized();
+    public ResponseEntity<Envelope<?>> createDepositForJar(AuthPrincipal principal,
+                                                          @PathVariable Long jarId,
+                                                          @RequestBody(required = false) Map<String, Object> body) {
+        if (principal == null) return unauthorized();
         if (jarId == null) return ResponseEntity.badRequest().body(error("Missing jarId path variable"));
-        JarEntity jar = jarRepo.findById(jarId).orElse(null);
-        if (jar == null || !jar.getUser().getId().equals(u.get("id"))) return ResponseEntity.badRequest().body(error("Jar not found"));
         if (body == null || !body.containsKey("amount")) return ResponseEntity.badRequest().body(error("Missing required field: amount"));
-        UserEntity userEntity = userRepo.findById((Long) u.get("id")).orElse(null);
-        if (userEntity == null) return unauthorized();
-        Double amount = toDouble(body.get("amount"), 0.0);
+        long amountCents = toCents(body.get("amount"), 0L);
         String description = String.valueOf(body.getOrDefault("description", ""));
-        DepositEntity dep = jarService.addDeposit(userEntity, jar, amount, description);
-        return ResponseEntity.ok(success("Deposit added", "deposit", depositToMap(dep)));
+        DepositEntity dep = jarService.addDeposit(principal.getId(), jarId, amountCents, description);
+        if (dep == null) return ResponseEntity.badRequest().body(error("Jar not found"));
+        return ResponseEntity.ok(success("Deposit added", "deposit", DepositView.from(dep)));
     }
 
+    // limit and/or cursor switch to keyset pagination (newest first, with nextCursor); without them the full list is returned
     @GetMapping("/api/deposits")
-    public ResponseEntity<Map<String, Object>> listDeposits(@RequestHeader(value = "Authorization", required = false) String auth,
-                                                            @org.springframework.web.bind.annotation.RequestParam(name = "jarId", required = false) Long jarId) {
-        Map<String,Object> u = authUser(auth);
-        if (u == null) return unauthorized();
-        UserEntity userEntity = userRepo.findById((Long) u.get("id")).orElse(null);
-        if (userEntity == null) return unauthorized();
-        List<DepositEntity> deps;
+    public ResponseEntity<Envelope<?>> listDeposits(AuthPrincipal principal,
+                                                   @org.springframework.web.bind.annotation.RequestParam(name = "jarId", required = false) Long jarId,
+                                                   @RequestParam(name = "limit", required = false) Integer limit,
+                                                   @RequestParam(name = "cursor", required = false) String cursor) {
+        if (principal == null) return unauthorized();
+        List<DepositView> list;
         if (jarId != null) {
-            JarEntity jar = jarRepo.findById(jarId).orElse(null);
-            if (jar == null || !jar.getUser().getId().equals(userEntity.getId())) return ResponseEntity.status(404).body(error("Jar not found"));
-            deps = jarService.listDepositsForJar(userEntity, jar);
+            if (!jarRepo.existsByIdAndUserId(jarId, principal.getId())) return ResponseEntity.status(404).body(error("Jar not found"));
+            if (limit != null || cursor != null) return depositPage(principal.getId(), jarId, limit, cursor);
+            list = jarService.listDepositViewsForJar(principal.getId(), jarId);
         } else {
-            deps = jarService.listDeposits(userEntity);
+            if (limit != null || cursor != null) return depositPage(principal.getId(), null, limit, cursor);
+            list = jarService.listDepositViews(principal.getId());
         }
-        List<Map<String,Object>> list = deps.stream().map(this::depositToMap).collect(Collectors.toList());
-        Map<String,Object> resp = new HashMap<>();
-        resp.put("success", true);
-        resp.put("total", list.size());
-        resp.put("deposits", list);
-        return ResponseEntity.ok(resp);
+        return ResponseEntity.ok(Envelope.list("deposits", list));
+    }
+
+    // Full deposit history streamed as CSV or NDJSON (constant memory); errors are JSON bodies as elsewhere
+    @GetMapping("/api/deposits/export")
+    public ResponseEntity<StreamingResponseBody> exportDeposits(AuthPrincipal principal,
+                                                                @RequestParam(name = "format", required = false) String format) {
+        if (principal == null) return streamError(401, "Unauthorized");
+        DepositExportService.Format fmt = DepositExportService.Format.from(format);
+        if (fmt == null) return streamError(400, "Unsupported format, expected csv or ndjson");
+        StreamingResponseBody body = depositExportService.open(principal.getId(), fmt);
+        if (body == null) return streamError(429, "Too many exports in progress, retry shortly");
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(fmt.contentType + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"finjar-deposits." + fmt.extension + "\"")
+                .body(body);
     }
 
     // Convenience legacy style: /api/deposits/jar/{jarId} returning just an array
     @GetMapping("/api/deposits/jar/{jarId}")
-    public ResponseEntity<?> listDepositsByJar(@RequestHeader(value = "Authorization", required = false) String auth,
+    // Paged requests (limit/cursor) always get the wrapped shape, since the array form has no room for nextCursor
+    public ResponseEntity<?> listDepositsByJar(AuthPrincipal principal,
                                                @PathVariable Long jarId,
-                                               @RequestParam(name = "flat", required = false) Integer flat) {
-        Map<String,Object> u = authUser(auth);
-        if (u == null) return unauthorized();
-        JarEntity jar = jarRepo.findById(jarId).orElse(null);
-        if (jar == null || !jar.getUser().getId().equals(u.get("id"))) return ResponseEntity.status(404).body(error("Jar not found"));
-        UserEntity userEntity = userRepo.findById((Long) u.get("id")).orElse(null);
-        if (userEntity == null) return unauthorized();
-        List<Map<String,Object>> list = jarService.listDepositsForJar(userEntity, jar).stream().map(this::depositToMap).collect(Collectors.toList());
-        if (flat == null || flat != 0) return ResponseEntity.ok(list);
-        Map<String,Object> resp = new HashMap<>();
-        resp.put("success", true);
-        resp.put("total", list.size());
-        resp.put("deposits", list);
-        return ResponseEntity.ok(resp);
+                                               @RequestParam(name = "flat", required = false) Integer flat,
+                                               @RequestParam(name = "limit", required = false) Integer limit,
+                                               @RequestParam(name = "cursor", required = false) String cursor,
+                                               @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (principal == null) return unauthorized();
+        boolean paged = limit != null || cursor != null;
+        boolean flatList = flat == null || flat != 0;
+        // a stamp is only matched for the user it was issued to, so 304 needs no ownership query
+        if (!paged && listingVersions.depositsNotModified(principal.getId(), jarId, flatList, ifNoneMatch)) {
+            return notModified(listingVersions.depositsTag(principal.getId(), jarId, flatList));
+        }
+        if (!jarRepo.existsByIdAndUserId(jarId, principal.getId())) return ResponseEntity.status(404).body(error("Jar not found"));
+        if (paged) return depositPage(principal.getId(), jarId, limit, cursor);
+        String etag = listingVersions.depositsTag(principal.getId(), jarId, flatList);
+        List<DepositView> list = jarService.listDepositViewsForJar(principal.getId(), jarId);
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(flatList ? list : Envelope.list("deposits", list));
     }
 
     @PutMapping("/api/deposits/{id}")
-    @Transactional
-    public ResponseEntity<Map<String, Object>> updateDeposit(@RequestHeader(value = "Authorization", required = false) String auth,
-                                                             @PathVariable Long id,
-                                                             @RequestBody(required = false) Map<String, Object> body) {
-        Map<String,Object> u = authUser(auth);
-        if (u == null) return unauthorized();
-        DepositEntity dep = depositRepo.findById(id).orElse(null);
+    public ResponseEntity<Envelope<?>> updateDeposit(AuthPrincipal principal,
+                                                    @PathVariable Long id,
+                                                    @RequestBody(required = false) Map<String, Object> body) {
+        if (principal == null) return unauthorized();
+        DepositEntity dep = depositRepo.findByIdAndUserId(id, principal.getId()).orElse(null);
         if (dep == null) return ResponseEntity.status(404).body(error("Deposit not found"));
-        if (!dep.getUser().getId().equals(u.get("id"))) return ResponseEntity.status(403).body(error("Forbidden"));
-        double oldAmount = dep.getAmount();
         if (body != null) {
-            if (body.containsKey("amount")) {
-                double newAmt = toDouble(body.get("amount"), oldAmount);
-                dep.setAmount(newAmt);
-                double delta = newAmt - oldAmount;
-                JarEntity jar = dep.getJar();
-                jar.setCurrentAmount(jar.getCurrentAmount() + delta);
-                jarRepo.save(jar);
+            try {
+                jarService.updateDeposit(dep,
+                        body.containsKey("amount") ? toCents(body.get("amount"), dep.getAmountCents()) : null,
+                        body.containsKey("description") ? String.valueOf(body.get("description")) : null);
+            } catch (ConcurrentModificationException e) {
+                return ResponseEntity.status(409).body(error(e.getMessage()));
             }
-            if (body.containsKey("description")) dep.setDescription(String.valueOf(body.get("description")));
         }
-        depositRepo.save(dep);
-        return ResponseEntity.ok(success("Deposit updated", "deposit", depositToMap(dep)));
+        return ResponseEntity.ok(success("Deposit updated", "deposit", DepositView.from(dep)));
     }
 
     @DeleteMapping("/api/deposits/{id}")
-    @Transactional
-    public ResponseEntity<Map<String, Object>> deleteDeposit(@RequestHeader(value = "Authorization", required = false) String auth,
-                                                             @PathVariable Long id) {
-        Map<String,Object> u = authUser(auth);
-        if (u == null) return unauthorized();
-        DepositEntity dep = depositRepo.findById(id).orElse(null);
+    public ResponseEntity<Envelope<?>> deleteDeposit(AuthPrincipal principal,
+                                                    @PathVariable Long id) {
+        if (principal == null) return unauthorized();
+        DepositEntity dep = depositRepo.findByIdAndUserId(id, principal.getId()).orElse(null);
         if (dep == null) return ResponseEntity.status(404).body(error("Deposit not found"));
-        if (!dep.getUser().getId().equals(u.get("id"))) return ResponseEntity.status(403).body(error("Forbidden"));
-        JarEntity jar = dep.getJar();
-        jar.setCurrentAmount(jar.getCurrentAmount() - dep.getAmount());
-        depositRepo.delete(dep);
-        jarRepo.save(jar);
-        return ResponseEntity.ok(success("Deposit deleted", "deposit", depositToMap(dep)));
+        try {
+            jarService.deleteDeposit(dep);
+        } catch (ConcurrentModificationException e) {
+            return ResponseEntity.status(409).body(error(e.getMessage()));
+        }
+        return ResponseEntity.ok(success("Deposit deleted", "deposit", DepositView.from(dep)));
+    }
+
+    // Aggregated report (totals per jar, per month and overall); replaces fetching every jar's deposits client-side.
+    // from/to: inclusive ISO dates (UTC), both optional; jarId: optional filter.
+    @GetMapping("/api/reports/summary")
+    public ResponseEntity<Envelope<?>> reportSummary(AuthPrincipal principal,
+                                                    @RequestParam(name = "from", required = false) String from,
+                                                    @RequestParam(name = "to", required = false) String to,
+                                                    @RequestParam(name = "jarId", required = false) Long jarId) {
+        if (principal == null) return unauthorized();
+        LocalDate fromDate;
+        LocalDate toDate;
+        try {
+            fromDate = from == null || from.isEmpty() ? null : LocalDate.parse(from);
+            toDate = to == null || to.isEmpty() ? null : LocalDate.parse(to);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(error("Invalid date, expected yyyy-MM-dd"));
+        }
+        if (fromDate != null && toDate != null && toDate.isBefore(fromDate)) {
+            return ResponseEntity.badRequest().body(error("'to' must not be before 'from'"));
+        }
+        return ResponseEntity.ok(success("Report summary", "summary", reportService.summary(principal.getId(), fromDate, toDate, jarId)));
     }
 
     @PostMapping("/api/jars/{id}/recalc")
-    public ResponseEntity<Map<String, Object>> recalc(@org.springframework.web.bind.annotation.PathVariable Long id) {
-        JarEntity jar = jarRepo.findById(id).orElse(null);
+    public ResponseEntity<Envelope<?>> recalc(AuthPrincipal principal, @PathVariable Long id) {
+        if (principal == null) return unauthorized();
+        JarEntity jar = jarRepo.findByIdAndUserId(id, principal.getId()).orElse(null);
         if (jar == null) return ResponseEntity.status(404).body(error("Jar not found"));
-        double current = depositRepo.findByJarAndUser(jar, jar.getUser()).stream().mapToDouble(DepositEntity::getAmount).sum();
-        jar.setCurrentAmount(current);
-        jarRepo.save(jar);
-        return ResponseEntity.ok(success("Recalculated", "jar", jarToMap(jar)));
+        return ResponseEntity.ok(success("Recalculated", "jar", jarService.view(jarService.recalc(jar))));
+    }
+
+    // Ledger audit: the jar's deposit events in sequence order; pass nextAfterSeq back as afterSeq for the next page
+    @GetMapping("/api/jars/{id}/ledger")
+    public ResponseEntity<Envelope<?>> jarLedger(AuthPrincipal principal,
+                                                @PathVariable Long id,
+                                                @RequestParam(name = "afterSeq", required = false) Long afterSeq,
+                                                @RequestParam(name = "limit", required = false) Integer limit) {
+        if (principal == null) return unauthorized();
+        if (!jarRepo.existsByIdAndUserId(id, principal.getId())) return ResponseEntity.status(404).body(error("Jar not found"));
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(MAX_PAGE_SIZE, limit));
+        List<LedgerEventView> events = jarService.ledgerEvents(principal.getId(), id, afterSeq == null ? 0L : afterSeq, size);
+        return ResponseEntity.ok(Envelope.list("events", events)
+                .with("limit", size)
+                .with("nextAfterSeq", events.size() < size ? null : events.get(size - 1).getSeq()));
+    }
+
+    // Balance rebuilt from the ledger (snapshot + tail); asOf=yyyy-MM-dd gives the balance at the end of that UTC day
+    @GetMapping("/api/jars/{id}/balance")
+    public ResponseEntity<Envelope<?>> jarBalance(AuthPrincipal principal,
+                                                 @PathVariable Long id,
+                                                 @RequestParam(name = "asOf", required = false) String asOf) {
+        if (principal == null) return unauthorized();
+        LocalDate asOfDate;
+        try {
+            asOfDate = toDate(asOf);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(error("Invalid asOf, expected yyyy-MM-dd"));
+        }
+        if (!jarRepo.existsByIdAndUserId(id, principal.getId())) return ResponseEntity.status(404).body(error("Jar not found"));
+        return ResponseEntity.ok(success("Jar balance", "amount", Money.toDecimal(jarService.ledgerBalance(principal.getId(), id, asOfDate)))
+                .with("jarId", id)
+                .with("asOf", asOfDate == null ? null : asOfDate.toString()));
     }
 
     // ================= Helper methods =================
-    private static double computeProgress(Double current, Double target) {
-        if (target == null || target <= 0) return 0.0;
-        return Math.min(100.0, (current == null ? 0.0 : current) / target * 100.0);
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private ResponseEntity<Envelope<?>> depositPage(Long userId, Long jarId, Integer limit, String cursor) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(MAX_PAGE_SIZE, limit));
+        DepositPage page;
+        try {
+            page = jarService.pageDeposits(userId, jarId, cursor, size);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(error(e.getMessage()));
+        }
+        return ResponseEntity.ok(Envelope.list("deposits", page.getItems())
+                .with("limit", size)
+                .with("nextCursor", page.getNextCursor()));
     }
 
     // In-memory adjustJarAmount removed; persistence handles aggregation
+    // Jar/deposit JSON rows are com.dto.JarView / DepositView (typed, no per-row maps)
 
-    private Map<String,Object> jarToMap(JarEntity j) {
-        Map<String,Object> m = new HashMap<>();
-        m.put("id", j.getId());
-        m.put("name", j.getName());
-        m.put("targetAmount", j.getTargetAmount());
-        m.put("currentAmount", j.getCurrentAmount());
-        m.put("description", j.getDescription());
-        m.put("createdAt", j.getCreatedAt() == null ? null : j.getCreatedAt().toEpochMilli());
-        m.put("progress", computeProgress(j.getCurrentAmount(), j.getTargetAmount()));
-        m.put("userId", j.getUser() != null ? j.getUser().getId() : null);
-        return m;
-    }
-
-    private Map<String,Object> depositToMap(DepositEntity d) {
-        Map<String,Object> m = new HashMap<>();
-        m.put("id", d.getId());
-        m.put("jarId", d.getJar() != null ? d.getJar().getId() : null);
-        m.put("amount", d.getAmount());
-        m.put("description", d.getDescription());
-        m.put("createdAt", d.getCreatedAt() == null ? null : d.getCreatedAt().toEpochMilli());
-        m.put("userId", d.getUser() != null ? d.getUser().getId() : null);
-        return m;
+    private static Long toCents(Object o, Long def) {
+        Long cents = Money.toCents(o);
+        return cents == null ? def : cents;
     }
-
-    private static Double toDouble(Object o, Double def) {
-        if (o == null) return def;
-        try { return Double.parseDouble(o.toString()); } catch (Exception e) { return def; }
+    /** yyyy-MM-dd, or null when absent or blank; throws DateTimeParseException otherwise. */
+    private static LocalDate toDate(Object o) {
+        if (o == null || o.toString().trim().isEmpty()) return null;
+        return LocalDate.parse(o.toString().trim());
     }
     private static Long toLong(Object o) {
         if (o == null) return null;
         try { return Long.parseLong(o.toString()); } catch (Exception e) { return null; }
     }
-    private Map<String, Object> error(String msg) {
-        Map<String, Object> m = new HashMap<>();
-        m.put("success", false);
-        m.put("message", msg);
-        return m;
-    }
-    private Map<String, Object> success(String msg, String key, Object value) {
-        Map<String, Object> m = new HashMap<>();
-        m.put("success", true);
-        m.put("message", msg);
-        m.put(key, value);
-        return m;
+    private static ResponseEntity<StreamingResponseBody> streamError(int status, String msg) {
+        String json = "{\"success\":false,\"message\":\"" + msg.replace("\"", "\\\"") + "\"}";
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON)
+                .body(out -> out.write(json.getBytes(StandardCharsets.UTF_8)));
+    }
+    private static Envelope<Void> error(String msg) {
+        return Envelope.error(msg);
+    }
+    private static <T> Envelope<T> success(String msg, String key, T value) {
+        return Envelope.ok(msg, key, value);
     }
     
     @GetMapping("/test")
@@ -0,0 +1,54 @@
+package com.config;
+
+import com.service.AuthService;
+import com.util.AuthPrincipal;
+import com.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Resolves {@link AuthPrincipal} handler arguments from the Bearer token claims.
+ * Resolves to null when the token is missing, invalid, expired or revoked; handlers answer 401 themselves.
+ */
+public class AuthPrincipalResolver implements HandlerMethodArgumentResolver {
+    private final JwtUtil jwtUtil;
+    private final AuthService authService;
+
+    public AuthPrincipalResolver(JwtUtil jwtUtil, AuthService authService) {
+        this.jwtUtil = jwtUtil;
+        this.authService = authService;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return AuthPrincipal.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        return resolve(webRequest.getHeader("Authorization"));
+    }
+
+    public AuthPrincipal resolve(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) return null;
+        try {
+            Claims claims = jwtUtil.parse(authHeader.substring(7)).getBody();
+            Object uidObj = claims.get("userId");
+            if (uidObj == null) return null;
+            Long uid = Long.parseLong(uidObj.toString());
+            Object tvObj = claims.get("tv");
+            int tv = tvObj == null ? 0 : Integer.parseInt(tvObj.toString());
+            if (!authService.isTokenVersionCurrent(uid, tv)) return null;
+            Object email = claims.get("email");
+            Object name = claims.get("name");
+            return new AuthPrincipal(uid, email == null ? claims.getSubject() : email.toString(), name == null ? null : name.toString());
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.config;
+
+import com.dto.Envelope;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.service.AuthRateLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Per-IP throttle for the login/register endpoints (paths registered in WebConfig). Runs before the request body is
+ * read, so a rejected attempt costs one CAS and no DB or BCrypt work. Interceptors run after the handler's CORS
+ * headers are applied, so browsers can read the 429.
+ * With finjar.auth.rate.trust-forwarded the client is the last X-Forwarded-For hop (the address our proxy saw);
+ * leave it off unless a proxy that sets the header sits in front, or clients can pick their own key.
+ */
+@Component
+public class AuthRateLimitInterceptor implements HandlerInterceptor {
+    private final AuthRateLimiter limiter;
+    private final ObjectMapper mapper;
+    private final boolean trustForwarded;
+
+    public AuthRateLimitInterceptor(AuthRateLimiter limiter, ObjectMapper mapper,
+                                    @Value("${finjar.auth.rate.trust-forwarded:false}") boolean trustForwarded) {
+        this.limiter = limiter;
+        this.mapper = mapper;
+        this.trustForwarded = trustForwarded;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!"POST".equals(request.getMethod())) return true;
+        long retryAfter = limiter.checkIp(clientIp(request));
+        if (retryAfter == 0) return true;
+        response.setStatus(429);
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        mapper.writeValue(response.getOutputStream(), Envelope.error("Too many attempts, retry later"));
+        return false;
+    }
+
+    private String clientIp(HttpServletRequest request) {
+        if (trustForwarded) {
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (forwarded != null) {
+                String last = forwarded.substring(forwarded.lastIndexOf(',') + 1).trim();
+                if (!last.isEmpty()) return last;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
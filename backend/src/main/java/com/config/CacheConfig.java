@@ -0,0 +1,31 @@
+package com.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caffeine caches. Evictions issued inside a transaction are applied after commit (transaction-aware proxy).
+ * That alone does not stop a read that started before the commit from putting the old state back afterwards,
+ * so jar-list entries also carry the version they were read under (see JarService.listViews). Stats are recorded and published by actuator as
+ * cache.gets / cache.puts / cache.evictions / cache.size.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    /** JarService.listViews results with their ListingVersions version, keyed by user id. */
+    public static final String JAR_LISTS = "jarLists";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${finjar.cache.jar-lists.spec:maximumSize=10000,expireAfterWrite=5m}") String spec) {
+        CaffeineCacheManager caffeine = new CaffeineCacheManager(JAR_LISTS);
+        caffeine.setCaffeine(Caffeine.from(spec).recordStats());
+        caffeine.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(caffeine);
+    }
+}
@@ -0,0 +1,26 @@
+package com.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Class-data-sharing training run (Dockerfile): with finjar.cds.training=true the application exits as soon as it
+ * is ready, so the JVM can dump the classes a full startup loads. The training run has no database; see the
+ * Dockerfile for the settings that let it start without one.
+ */
+@Component
+@ConditionalOnProperty(name = "finjar.cds.training", havingValue = "true")
+public class CdsTrainingExit {
+    private static final Logger log = LoggerFactory.getLogger(CdsTrainingExit.class);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void exit(ApplicationReadyEvent event) {
+        log.info("[FinJar] CDS training run complete, exiting");
+        System.exit(SpringApplication.exit(event.getApplicationContext(), () -> 0));
+    }
+}
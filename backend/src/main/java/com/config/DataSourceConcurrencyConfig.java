@@ -0,0 +1,124 @@
+package com.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps concurrent connection checkouts with a fair semaphore in front of each pool. With virtual threads,
+ * thousands of requests can reach JDBC at once; they queue here in arrival order (cheaply parked) instead of
+ * piling into Hikari's handoff. Enabled by finjar.db.limit-concurrency
+ * (defaults to finjar.threads.virtual).
+ * Each pool gets its own semaphore, sized to its maximum-pool-size (finjar.db.max-concurrent overrides it for the
+ * primary), and waits time out like that pool's connection-timeout. The post-processor only wraps the single
+ * Hikari pool; with a read replica, ReadReplicaConfig limits the primary and replica pools behind its router.
+ */
+@Configuration
+public class DataSourceConcurrencyConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "finjar.db.limit-concurrency", havingValue = "true")
+    public static BeanPostProcessor dataSourceConcurrencyLimiter(Environment env) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof HikariDataSource) {
+                    return limit((HikariDataSource) bean, env.getProperty("finjar.db.max-concurrent", Integer.class), env);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /** The pool behind its own semaphore (null permits: the pool's maximum size), or the pool itself when disabled. */
+    static DataSource limit(HikariDataSource pool, Integer permits, Environment env) {
+        if (!env.getProperty("finjar.db.limit-concurrency", Boolean.class, false)) return pool;
+        return new ConcurrencyLimitingDataSource(pool, permits != null ? permits : pool.getMaximumPoolSize(), pool.getConnectionTimeout());
+    }
+
+    static class ConcurrencyLimitingDataSource extends DelegatingDataSource {
+        private final Semaphore permits;
+        private final long timeoutMs;
+
+        ConcurrencyLimitingDataSource(DataSource target, int permits, long timeoutMs) {
+            super(target);
+            this.permits = new Semaphore(permits, true);
+            this.timeoutMs = timeoutMs;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            acquire();
+            try {
+                return releasing(obtainTargetDataSource().getConnection());
+            } catch (SQLException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            acquire();
+            try {
+                return releasing(obtainTargetDataSource().getConnection(username, password));
+            } catch (SQLException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        private void acquire() throws SQLException {
+            try {
+                if (!permits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+                    throw new SQLTransientConnectionException("No connection permit within " + timeoutMs + "ms");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientConnectionException("Interrupted waiting for a connection permit", e);
+            }
+        }
+
+        // The permit goes back on the first close(); later closes are passed through untouched
+        private Connection releasing(Connection target) {
+            AtomicBoolean released = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if ("close".equals(method.getName()) && (args == null || args.length == 0)) {
+                            try {
+                                return method.invoke(target);
+                            } catch (InvocationTargetException e) {
+                                throw e.getTargetException();
+                            } finally {
+                                if (released.compareAndSet(false, true)) permits.release();
+                            }
+                        }
+                        if ("unwrap".equals(method.getName()) || "isWrapperFor".equals(method.getName())) {
+                            if (args != null && args[0] == Connection.class) {
+                                return "unwrap".equals(method.getName()) ? proxy : Boolean.TRUE;
+                            }
+                        }
+                        try {
+                            return method.invoke(target, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+    }
+}
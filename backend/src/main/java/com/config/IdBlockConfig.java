@@ -0,0 +1,59 @@
+package com.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.io.Closeable;
+
+/**
+ * A small pool used only by IdBlockGenerator to claim id blocks, so a writer that already holds a main-pool
+ * connection never needs a second one from the same pool. It starts from spring.datasource.* and
+ * spring.datasource.hikari.*, defaults to at most two connections (one per generated entity) and applies
+ * finjar.datasource.ids.hikari.* on top. Hibernate gets it through its settings map under {@link #DATA_SOURCE}.
+ * It is not a DataSource bean, which keeps Boot's single-DataSource auto-configuration and the concurrency
+ * limiter off it; its metrics are published as pool=finjar-ids.
+ */
+@Configuration
+public class IdBlockConfig {
+    static final String DATA_SOURCE = "finjar.id-blocks.data-source";
+
+    @Bean
+    public IdBlockPool idBlockPool(DataSourceProperties properties, Environment env) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder binder = Binder.get(env);
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setMaximumPoolSize(2);
+        pool.setMinimumIdle(0);
+        binder.bind("finjar.datasource.ids.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName("finjar-ids");
+        pool.setAutoCommit(true);
+        return new IdBlockPool(pool);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer idBlockDataSource(IdBlockPool idBlockPool) {
+        return settings -> settings.put(DATA_SOURCE, idBlockPool.dataSource);
+    }
+
+    @Bean
+    public MeterBinder idBlockPoolMetrics(IdBlockPool idBlockPool) {
+        return meters -> idBlockPool.dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meters));
+    }
+
+    public static final class IdBlockPool implements Closeable {
+        final HikariDataSource dataSource;
+
+        IdBlockPool(HikariDataSource dataSource) { this.dataSource = dataSource; }
+
+        @Override
+        public void close() { dataSource.close(); }
+    }
+}
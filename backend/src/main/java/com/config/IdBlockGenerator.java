@@ -0,0 +1,108 @@
+package com.config;
+
+import org.hibernate.HibernateException;
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGeneratorHelper;
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.enhanced.AccessCallback;
+import org.hibernate.id.enhanced.TableGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import javax.sql.DataSource;
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Properties;
+
+/**
+ * Hibernate's TableGenerator (same parameters, same table, exported and validated the same way), except that each
+ * id block is claimed on the small pool from IdBlockConfig. TableGenerator claims it as isolated work on a second
+ * connection from the main pool, taken while the writer already holds one and while every other writer of the
+ * entity waits on the optimizer: with more writers than connections, the pool starves.
+ * <p>
+ * A block is claimed by compare-and-set on the segment row (autocommit), so instances and other nodes never hand out
+ * the same ids.
+ */
+public class IdBlockGenerator extends TableGenerator {
+    private DataSource dataSource;
+    private Class<?> idType;
+    private String selectSql;
+    private String updateSql;
+    private String insertSql;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        super.configure(type, params, serviceRegistry);
+        Object ds = serviceRegistry.getService(ConfigurationService.class).getSettings().get(IdBlockConfig.DATA_SOURCE);
+        if (!(ds instanceof DataSource)) {
+            throw new MappingException("IdBlockGenerator needs a DataSource under " + IdBlockConfig.DATA_SOURCE);
+        }
+        this.dataSource = (DataSource) ds;
+        this.idType = type.getReturnedClass();
+        String table = getTableName();
+        this.selectSql = "SELECT " + getValueColumnName() + " FROM " + table + " WHERE " + getSegmentColumnName() + " = ?";
+        this.updateSql = "UPDATE " + table + " SET " + getValueColumnName() + " = ? WHERE " + getSegmentColumnName() + " = ? AND "
+                + getValueColumnName() + " = ?";
+        this.insertSql = "INSERT INTO " + table + " (" + getSegmentColumnName() + ", " + getValueColumnName() + ") VALUES (?, ?)";
+    }
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) throws HibernateException {
+        return getOptimizer().generate(new AccessCallback() {
+            @Override
+            public IntegralDataTypeHolder getNextValue() {
+                IntegralDataTypeHolder value = IdentifierGeneratorHelper.getIntegralDataTypeHolder(idType);
+                value.initialize(claimBlock());
+                return value;
+            }
+
+            @Override
+            public String getTenantIdentifier() {
+                return session.getTenantIdentifier();
+            }
+        });
+    }
+
+    /** Source value for the optimizer: the stored value, which moves on by one block (pooled-lo semantics). */
+    long claimBlock() {
+        String segment = getSegmentValue();
+        try (Connection c = dataSource.getConnection()) {
+            c.setAutoCommit(true);
+            boolean inserted = false;
+            while (true) {
+                Long current = null;
+                try (PreparedStatement select = c.prepareStatement(selectSql)) {
+                    select.setString(1, segment);
+                    try (ResultSet rs = select.executeQuery()) {
+                        if (rs.next()) current = rs.getLong(1);
+                    }
+                }
+                if (current == null) {
+                    if (inserted) throw new HibernateException("No " + getTableName() + " row for " + segment);
+                    inserted = true;
+                    try (PreparedStatement insert = c.prepareStatement(insertSql)) {
+                        insert.setString(1, segment);
+                        insert.setLong(2, getInitialValue());
+                        insert.executeUpdate();
+                    } catch (SQLException raced) {
+                        // another node created the row first; read it again
+                    }
+                    continue;
+                }
+                try (PreparedStatement update = c.prepareStatement(updateSql)) {
+                    update.setLong(1, current + getIncrementSize());
+                    update.setString(2, segment);
+                    update.setLong(3, current);
+                    if (update.executeUpdate() == 1) return current;
+                }
+            }
+        } catch (SQLException e) {
+            throw new HibernateException("Could not claim an id block for " + segment, e);
+        }
+    }
+}
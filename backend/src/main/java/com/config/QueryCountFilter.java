@@ -0,0 +1,56 @@
+package com.config;
+
+import com.util.QueryCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Per-request SQL statement counts: records finjar.http.queries (tags method, uri) for every request and
+ * leaves the counter in a request attribute for QueryCountHeaderAdvice (X-Query-Count debug header).
+ */
+@Component
+public class QueryCountFilter extends OncePerRequestFilter {
+    public static final String ATTRIBUTE = QueryCounter.class.getName();
+
+    private final MeterRegistry registry;
+
+    public QueryCountFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Bean
+    public static HibernatePropertiesCustomizer queryCountInspector() {
+        return props -> props.put("hibernate.session_factory.statement_inspector", QueryCounter.INSPECTOR);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryCounter counter = QueryCounter.bind();
+        request.setAttribute(ATTRIBUTE, counter);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            QueryCounter.unbind();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("finjar.http.queries")
+                    .description("SQL statements per request (request thread only)")
+                    .tag("method", request.getMethod())
+                    .tag("uri", pattern == null ? "UNKNOWN" : pattern.toString())
+                    .publishPercentiles(0.5, 0.99)
+                    .register(registry)
+                    .record(counter.get());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.config;
+
+import com.util.QueryCounter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds X-Query-Count (statements issued so far by the request thread) to JSON responses when
+ * finjar.debug.query-count-header=true, so CI can assert per-endpoint statement counts.
+ */
+@ControllerAdvice
+public class QueryCountHeaderAdvice implements ResponseBodyAdvice<Object> {
+    public static final String HEADER = "X-Query-Count";
+
+    private final boolean enabled;
+
+    public QueryCountHeaderAdvice(@Value("${finjar.debug.query-count-header:false}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return enabled;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType contentType,
+                                  Class<? extends HttpMessageConverter<?>> converterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest) {
+            Object counter = ((ServletServerHttpRequest) request).getServletRequest().getAttribute(QueryCountFilter.ATTRIBUTE);
+            if (counter instanceof QueryCounter) response.getHeaders().set(HEADER, Integer.toString(((QueryCounter) counter).get()));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,128 @@
+package com.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Primary + read replica pools behind one DataSource, active when finjar.datasource.replica.url is set.
+ * Read-only transactions use the replica unless ReplicaRouting pins them to the primary; everything else,
+ * including reads outside a transaction, uses the primary.
+ * <p>
+ * The routing key is read when the physical connection is fetched. JPA asks for a connection while beginning the
+ * transaction, before Spring marks it read-only, so a LazyConnectionDataSourceProxy defers the fetch to the first
+ * statement. The primary pool takes spring.datasource.hikari.*; the replica pool starts from the same settings and
+ * applies finjar.datasource.replica.hikari.* on top. Both publish hikaricp.* metrics (pool=finjar-primary|finjar-replica)
+ * through a MeterBinder: the registry depends on the DataSource, never the other way round.
+ */
+@Configuration
+@ConditionalOnExpression("!'${finjar.datasource.replica.url:}'.isEmpty()")
+public class ReadReplicaConfig {
+    private static final Logger log = LoggerFactory.getLogger(ReadReplicaConfig.class);
+
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties, Environment env) {
+        Binder binder = Binder.get(env);
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("finjar-primary");
+
+        HikariDataSource replica = DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(env.getRequiredProperty("finjar.datasource.replica.url"))
+                .username(env.getProperty("finjar.datasource.replica.username", properties.determineUsername()))
+                .password(env.getProperty("finjar.datasource.replica.password", properties.determinePassword()))
+                .build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+        binder.bind("finjar.datasource.replica.hikari", Bindable.ofInstance(replica));
+        replica.setPoolName("finjar-replica");
+
+        log.info("[FinJar] Read-only transactions routed to replica {}", replica.getJdbcUrl().replaceAll("(?i)password=[^&]+", "password=***"));
+
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replica,
+                DataSourceConcurrencyConfig.limit(primary, env.getProperty("finjar.db.max-concurrent", Integer.class), env),
+                DataSourceConcurrencyConfig.limit(replica, null, env));
+        routing.afterPropertiesSet();
+        LazyRoutingDataSource lazy = new LazyRoutingDataSource(routing);
+        // Set explicitly so the proxy does not open a connection to find them out
+        lazy.setDefaultAutoCommit(primary.isAutoCommit());
+        lazy.setDefaultTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ); // InnoDB's default
+        lazy.afterPropertiesSet();
+        return lazy;
+    }
+
+    // Boot's Hikari binder only unwraps a DataSource to a single pool; the routed pools are bound here.
+    // Hikari accepts a tracker factory after the pool has started as long as none was set before.
+    @Bean
+    public MeterBinder routedPoolMetrics(DataSource dataSource) {
+        return meters -> {
+            ReadWriteRoutingDataSource routing = ((LazyRoutingDataSource) dataSource).routing;
+            routing.primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meters));
+            routing.replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meters));
+        };
+    }
+
+    static final class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+        private final HikariDataSource primary;
+        private final HikariDataSource replica;
+
+        // The targets are the pools, or the pools behind their concurrency limits (DataSourceConcurrencyConfig)
+        ReadWriteRoutingDataSource(HikariDataSource primary, HikariDataSource replica, DataSource primaryTarget, DataSource replicaTarget) {
+            this.primary = primary;
+            this.replica = replica;
+            Map<Object, Object> targets = new HashMap<>();
+            targets.put(PRIMARY, primaryTarget);
+            targets.put(REPLICA, replicaTarget);
+            setTargetDataSources(targets);
+            setDefaultTargetDataSource(primaryTarget);
+        }
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return ReplicaRouting.replicaAllowed() ? REPLICA : PRIMARY;
+        }
+
+        @Override
+        public void close() {
+            replica.close();
+            primary.close();
+        }
+    }
+
+    // The bean Spring closes on shutdown (close() is inferred as its destroy method)
+    static final class LazyRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+        private final ReadWriteRoutingDataSource routing;
+
+        LazyRoutingDataSource(ReadWriteRoutingDataSource routing) {
+            this.routing = routing;
+            setTargetDataSource(routing);
+        }
+
+        @Override
+        public void close() {
+            routing.close();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.service.JarChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-your-writes for replica routing (ReadReplicaConfig): read-only transactions go to the replica, except for
+ * a user who changed something within finjar.datasource.read-your-writes-ms. Read-only service methods call
+ * {@link #readingFor} first; for a recent writer it pins the rest of that transaction to the primary.
+ * Writes are recorded after commit from every JarChangedEvent. Per instance, like the jar-list cache.
+ * Without a replica configured nothing reads the pin, so this costs one map lookup per read.
+ */
+@Component
+public class ReplicaRouting {
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+    private final Cache<Long, Boolean> recentWriters;
+
+    public ReplicaRouting(@Value("${finjar.datasource.read-your-writes-ms:5000}") long windowMs,
+                          @Value("${finjar.etag.max-keys:100000}") long maxKeys) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(Math.max(0, windowMs), TimeUnit.MILLISECONDS)
+                .maximumSize(maxKeys)
+                .build();
+    }
+
+    /** Call at the start of a read-only transaction on behalf of the user. */
+    public void readingFor(Long userId) {
+        if (userId == null || recentWriters.getIfPresent(userId) == null) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || Boolean.TRUE.equals(PRIMARY.get())) return;
+        PRIMARY.set(Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                PRIMARY.remove();
+            }
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onJarChanged(JarChangedEvent event) {
+        recentWriters.put(event.getUserId(), Boolean.TRUE);
+    }
+
+    /** True when the current read-only transaction may use the replica. */
+    static boolean replicaAllowed() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !Boolean.TRUE.equals(PRIMARY.get());
+    }
+}
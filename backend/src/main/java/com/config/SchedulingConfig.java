@@ -0,0 +1,10 @@
+package com.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/** Enables @Scheduled jobs; each job's cron defaults to "-" (disabled) unless configured. */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,47 @@
+package com.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Virtual-thread mode (finjar.threads.virtual=true, Java 21 runtime): Tomcat request handling, MVC async work
+ * (export streaming) and @Async methods run on virtual threads instead of the fixed platform pools.
+ * JDBC access stays bounded by the DataSource concurrency limit (see DataSourceConcurrencyConfig).
+ */
+@Configuration
+@EnableAsync
+@ConditionalOnProperty(name = "finjar.threads.virtual", havingValue = "true")
+public class ThreadingConfig {
+    private static final Logger log = LoggerFactory.getLogger(ThreadingConfig.class);
+
+    private final ExecutorService virtualThreads;
+
+    public ThreadingConfig() {
+        this.virtualThreads = VirtualThreads.newPerTaskExecutor();
+        if (virtualThreads == null) {
+            throw new IllegalStateException("finjar.threads.virtual=true requires Java 21+ (running " + System.getProperty("java.version") + ")");
+        }
+        log.info("Request handling and async work run on virtual threads");
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandler() {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreads);
+    }
+
+    // Same bean name as Boot's default task executor, which it replaces for @Async and MVC async requests
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(virtualThreads);
+    }
+}
@@ -0,0 +1,21 @@
+package com.config;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Virtual-thread executor lookup by reflection, so the code base still compiles for Java 8.
+ * Returns null on runtimes without virtual threads (before Java 21).
+ */
+final class VirtualThreads {
+    private VirtualThreads() { }
+
+    static ExecutorService newPerTaskExecutor() {
+        try {
+            Method m = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) m.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import com.service.AuthService;
+import com.util.JwtUtil;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+    private final AuthService authService;
+    private final AuthRateLimitInterceptor authRateLimit;
+
+    public WebConfig(AuthService authService, AuthRateLimitInterceptor authRateLimit) {
+        this.authService = authService;
+        this.authRateLimit = authRateLimit;
+    }
+
+    // Replace secret via FINJAR_JWT_SECRET env var in production.
+    @Bean
+    public JwtUtil jwtUtil() {
+        Map<String,String> env = System.getenv();
+        String secret = env.getOrDefault("FINJAR_JWT_SECRET", env.getOrDefault("JWT_SECRET", "ChangeMe_AtLeast32Chars_Long_Secret_Key_123"));
+        String expMsStr = env.getOrDefault("FINJAR_JWT_EXPIRATION_MS", env.getOrDefault("JWT_EXPIRATION", "3600000"));
+        long expMs;
+        try { expMs = Long.parseLong(expMsStr.trim()); } catch (Exception e) { expMs = 3600000L; }
+        // If value looks like seconds (e.g. 86400), convert to ms.
+        if (expMs > 0 && expMs < 1000000L) { // < ~16.6 minutes in ms -> assume seconds
+            expMs = expMs * 1000L;
+        }
+        return new JwtUtil(secret, expMs);
+    }
+
+    @Bean
+    public AuthPrincipalResolver authPrincipalResolver() {
+        return new AuthPrincipalResolver(jwtUtil(), authService);
+    }
+
+    // Picked up by Spring Boot's Jackson auto-configuration; replaces reflective getter calls on DTOs with generated accessors
+    @Bean
+    public Module afterburnerModule() {
+        return new AfterburnerModule();
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(authPrincipalResolver());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(authRateLimit).addPathPatterns(
+                "/api/auth/login", "/auth/login", "/api/users/login",
+                "/api/auth/register", "/auth/register", "/api/users/register");
+    }
+}
@@ -0,0 +1,44 @@
+package com.dto;
+
+import com.model.DepositEntity;
+import com.util.Money;
+
+import java.time.Instant;
+
+/**
+ * Immutable deposit response row, filled from JPQL constructor expressions in DepositRepo.
+ * Keeps the exact createdAt instant for keyset cursors; JSON carries epoch millis.
+ */
+public final class DepositView {
+    private final Long id;
+    private final Long jarId;
+    private final long amountCents;
+    private final String description;
+    private final Instant created;
+    private final Long userId;
+
+    public DepositView(Long id, Long jarId, long amountCents, String description, Instant created, Long userId) {
+        this.id = id;
+        this.jarId = jarId;
+        this.amountCents = amountCents;
+        this.description = description;
+        this.created = created;
+        this.userId = userId;
+    }
+
+    // getJar()/getUser() ids come from the proxies without initializing them
+    public static DepositView from(DepositEntity d) {
+        return new DepositView(d.getId(), d.getJar() != null ? d.getJar().getId() : null, d.getAmountCents(),
+                d.getDescription(), d.getCreatedAt(), d.getUser() != null ? d.getUser().getId() : null);
+    }
+
+    public Long getId() { return id; }
+    public Long getJarId() { return jarId; }
+    public double getAmount() { return Money.toDecimal(amountCents); }
+    public String getDescription() { return description; }
+    public Long getCreatedAt() { return created == null ? null : created.toEpochMilli(); }
+    public Long getUserId() { return userId; }
+
+    /** Exact creation instant (not serialized). */
+    public Instant createdInstant() { return created; }
+}
@@ -0,0 +1,89 @@
+package com.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Standard API response: {"success", "message"?, "total"?, &lt;key&gt;: value, ...extras}.
+ * Serialized field by field with pre-encoded names, keeping the wire format of the former HashMap responses.
+ */
+@JsonSerialize(using = Envelope.Serializer.class)
+public final class Envelope<T> {
+    private final boolean success;
+    private final String message;
+    private final String key;
+    private final T value;
+    private final Integer total;
+    private Map<String, Object> extras;
+
+    private Envelope(boolean success, String message, String key, T value, Integer total) {
+        this.success = success;
+        this.message = message;
+        this.key = key;
+        this.value = value;
+        this.total = total;
+    }
+
+    public static <T> Envelope<T> ok(String message, String key, T value) {
+        return new Envelope<>(true, message, key, value, null);
+    }
+
+    /** {"success": true, "total": n, key: [...]} */
+    public static <E> Envelope<List<E>> list(String key, List<E> items) {
+        return new Envelope<>(true, null, key, items, items.size());
+    }
+
+    public static Envelope<Void> error(String message) {
+        return new Envelope<>(false, message, null, null, null);
+    }
+
+    /** Adds a top-level field (e.g. token, nextCursor). */
+    public Envelope<T> with(String field, Object fieldValue) {
+        if (extras == null) extras = new LinkedHashMap<>(4);
+        extras.put(field, fieldValue);
+        return this;
+    }
+
+    public boolean isSuccess() { return success; }
+    public String getMessage() { return message; }
+    public T getValue() { return value; }
+
+    public static final class Serializer extends StdSerializer<Envelope<?>> {
+        private static final SerializedString SUCCESS = new SerializedString("success");
+        private static final SerializedString MESSAGE = new SerializedString("message");
+        private static final SerializedString TOTAL = new SerializedString("total");
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public Serializer() {
+            super((Class) Envelope.class);
+        }
+
+        @Override
+        public void serialize(Envelope<?> env, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            gen.writeFieldName(SUCCESS);
+            gen.writeBoolean(env.success);
+            if (env.message != null) {
+                gen.writeFieldName(MESSAGE);
+                gen.writeString(env.message);
+            }
+            if (env.total != null) {
+                gen.writeFieldName(TOTAL);
+                gen.writeNumber(env.total);
+            }
+            if (env.key != null) provider.defaultSerializeField(env.key, env.value, gen);
+            if (env.extras != null) {
+                for (Map.Entry<String, Object> e : env.extras.entrySet()) provider.defaultSerializeField(e.getKey(), e.getValue(), gen);
+            }
+            gen.writeEndObject();
+        }
+    }
+}
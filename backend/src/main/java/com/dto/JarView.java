@@ -0,0 +1,77 @@
+package com.dto;
+
+import com.model.JarEntity;
+import com.model.JarProjectionEntity;
+import com.util.GoalProjection;
+import com.util.Money;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Immutable jar response row. Filled straight from a JPQL constructor expression (JarRepo.findViewsByUserId)
+ * or from an entity after a write; amounts are rendered as decimals, createdAt as epoch millis.
+ * Projection fields (monthlyRate, etaDate, requiredMonthly) are computed once here from the jar's
+ * jar_projections state, dated today in UTC; they are null when there is no deposit history or target date.
+ */
+public final class JarView {
+    private final Long id;
+    private final String name;
+    private final long targetCents;
+    private final long currentCents;
+    private final String description;
+    private final Long createdAt;
+    private final Long userId;
+    private final String targetDate;
+    private final Long monthlyRateCents;
+    private final String etaDate;
+    private final Long requiredMonthlyCents;
+
+    public JarView(Long id, String name, long targetCents, long currentCents, String description, Instant createdAt, Long userId) {
+        this(id, name, targetCents, currentCents, description, createdAt, userId, null, null, null, null, null);
+    }
+
+    // Projection state columns are wrappers: they come from a left join and are null for jars without deposits
+    public JarView(Long id, String name, long targetCents, long currentCents, String description, Instant createdAt, Long userId,
+                   LocalDate targetDate, Integer firstYm, Integer openYm, Long openCents, Double ewmaCents) {
+        this.id = id;
+        this.name = name;
+        this.targetCents = targetCents;
+        this.currentCents = currentCents;
+        this.description = description;
+        this.createdAt = createdAt == null ? null : createdAt.toEpochMilli();
+        this.userId = userId;
+        this.targetDate = targetDate == null ? null : targetDate.toString();
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        Double rate = GoalProjection.monthlyRate(firstYm, openYm, openCents, ewmaCents, GoalProjection.yyyymm(today));
+        LocalDate eta = GoalProjection.eta(targetCents - currentCents, rate, today);
+        this.monthlyRateCents = rate == null ? null : Math.round(rate);
+        this.etaDate = eta == null ? null : eta.toString();
+        this.requiredMonthlyCents = GoalProjection.requiredMonthly(targetCents - currentCents, targetDate, today);
+    }
+
+    public static JarView from(JarEntity j) {
+        return from(j, null);
+    }
+
+    public static JarView from(JarEntity j, JarProjectionEntity p) {
+        return new JarView(j.getId(), j.getName(), j.getTargetCents(), j.getCurrentCents(), j.getDescription(),
+                j.getCreatedAt(), j.getUser() != null ? j.getUser().getId() : null, j.getTargetDate(),
+                p == null ? null : p.getFirstYm(), p == null ? null : p.getOpenYm(),
+                p == null ? null : p.getOpenCents(), p == null ? null : p.getEwmaCents());
+    }
+
+    public Long getId() { return id; }
+    public String getName() { return name; }
+    public double getTargetAmount() { return Money.toDecimal(targetCents); }
+    public double getCurrentAmount() { return Money.toDecimal(currentCents); }
+    public String getDescription() { return description; }
+    public Long getCreatedAt() { return createdAt; }
+    public double getProgress() { return Money.progress(currentCents, targetCents); }
+    public Long getUserId() { return userId; }
+    public String getTargetDate() { return targetDate; }
+    public Double getMonthlyRate() { return monthlyRateCents == null ? null : Money.toDecimal(monthlyRateCents); }
+    public String getEtaDate() { return etaDate; }
+    public Double getRequiredMonthly() { return requiredMonthlyCents == null ? null : Money.toDecimal(requiredMonthlyCents); }
+}
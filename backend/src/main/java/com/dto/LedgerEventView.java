@@ -0,0 +1,35 @@
+package com.dto;
+
+import com.model.DepositEventEntity;
+import com.util.Money;
+
+/** Immutable deposit ledger row (GET /api/jars/{id}/ledger); amounts as decimals, createdAt as epoch millis. */
+public final class LedgerEventView {
+    private final long seq;
+    private final String type;
+    private final Long depositId;
+    private final long deltaCents;
+    private final long amountCents;
+    private final Long createdAt;
+
+    public LedgerEventView(long seq, String type, Long depositId, long deltaCents, long amountCents, Long createdAt) {
+        this.seq = seq;
+        this.type = type;
+        this.depositId = depositId;
+        this.deltaCents = deltaCents;
+        this.amountCents = amountCents;
+        this.createdAt = createdAt;
+    }
+
+    public static LedgerEventView from(DepositEventEntity e) {
+        return new LedgerEventView(e.getSeq(), e.getType(), e.getDepositId(), e.getDeltaCents(), e.getAmountCents(),
+                e.getCreatedAt() == null ? null : e.getCreatedAt().toEpochMilli());
+    }
+
+    public long getSeq() { return seq; }
+    public String getType() { return type; }
+    public Long getDepositId() { return depositId; }
+    public double getDelta() { return Money.toDecimal(deltaCents); }
+    public double getAmount() { return Money.toDecimal(amountCents); }
+    public Long getCreatedAt() { return createdAt; }
+}
@@ -0,0 +1,24 @@
+package com.dto;
+
+import com.model.UserEntity;
+
+/** Public user fields returned by auth/profile endpoints (never the password hash). */
+public final class UserView {
+    private final Long id;
+    private final String email;
+    private final String name;
+
+    public UserView(Long id, String email, String name) {
+        this.id = id;
+        this.email = email;
+        this.name = name;
+    }
+
+    public static UserView from(UserEntity u) {
+        return new UserView(u.getId(), u.getEmail(), u.getName());
+    }
+
+    public Long getId() { return id; }
+    public String getEmail() { return email; }
+    public String getName() { return name; }
+}
@@ -1,13 +1,32 @@
 package com.model;
 
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
 import javax.persistence.*;
 import java.time.Instant;
 
 @Entity
-@Table(name = "deposits", indexes = @Index(name = "idx_dep_jar", columnList = "jar_id"))
+@Table(name = "deposits", indexes = {
+        // (owner, created_at, id) composites back the keyset-paginated listings
+        @Index(name = "idx_dep_jar_created", columnList = "jar_id, created_at, id"),
+        @Index(name = "idx_dep_user", columnList = "user_id, created_at, id")
+})
 public class DepositEntity {
+    // Table-backed ids handed out 50 at a time (pooled-lo): unlike IDENTITY this lets Hibernate batch inserts.
+    // V5__id_sequences starts the segment above the ids issued by the old AUTO_INCREMENT column. Blocks are claimed
+    // on IdBlockConfig's own pool, never a second connection from the pool the inserting transaction holds.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "deposit_ids")
+    @GenericGenerator(name = "deposit_ids", strategy = "com.config.IdBlockGenerator", parameters = {
+            @Parameter(name = "table_name", value = "id_sequences"),
+            @Parameter(name = "segment_column_name", value = "sequence_name"),
+            @Parameter(name = "value_column_name", value = "next_val"),
+            @Parameter(name = "segment_value", value = "deposits"),
+            @Parameter(name = "increment_size", value = "50"),
+            @Parameter(name = "optimizer", value = "pooled-lo"),
+            @Parameter(name = "initial_value", value = "1")
+    })
     private Long id;
 
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
@@ -16,13 +35,13 @@ public class DepositEntity {
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
     private UserEntity user;
 
-    @Column(nullable = false)
-    private Double amount;
+    @Column(name = "amount_cents", nullable = false)
+    private long amountCents;
 
     @Column(length = 300)
     private String description;
 
-    @Column(nullable = false)
+    @Column(name = "created_at", nullable = false)
     private Instant createdAt = Instant.now();
 
     public Long getId() { return id; }
@@ -30,8 +49,8 @@ public class DepositEntity {
     public void setJar(JarEntity jar) { this.jar = jar; }
     public UserEntity getUser() { return user; }
     public void setUser(UserEntity user) { this.user = user; }
-    public Double getAmount() { return amount; }
-    public void setAmount(Double amount) { this.amount = amount; }
+    public long getAmountCents() { return amountCents; }
+    public void setAmountCents(long amountCents) { this.amountCents = amountCents; }
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
     public Instant getCreatedAt() { return createdAt; }
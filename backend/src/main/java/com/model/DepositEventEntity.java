@@ -0,0 +1,87 @@
+package com.model;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Parameter;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * One entry of the append-only deposit ledger: a deposit created, amended (amount changed) or deleted, with the
+ * balance delta it caused. {@code seq} numbers a jar's events 1, 2, 3, ... in commit order (assigned under the
+ * jar's row lock). Rows are never updated; they are only removed together with their jar.
+ */
+@Entity
+@Immutable
+@Table(name = "deposit_events",
+        uniqueConstraints = @UniqueConstraint(name = "uk_dev_jar_seq", columnNames = {"jar_id", "seq"}),
+        indexes = @Index(name = "idx_dev_created", columnList = "created_at"))
+public class DepositEventEntity {
+    public static final String CREATED = "CREATED";
+    public static final String AMENDED = "AMENDED";
+    public static final String DELETED = "DELETED";
+
+    // Same pooled table generator as deposits (blocks claimed on its own pool), so batch deposits append their events
+    // in JDBC batches too
+    @Id
+    @GeneratedValue(generator = "deposit_event_ids")
+    @GenericGenerator(name = "deposit_event_ids", strategy = "com.config.IdBlockGenerator", parameters = {
+            @Parameter(name = "table_name", value = "id_sequences"),
+            @Parameter(name = "segment_column_name", value = "sequence_name"),
+            @Parameter(name = "value_column_name", value = "next_val"),
+            @Parameter(name = "segment_value", value = "deposit_events"),
+            @Parameter(name = "increment_size", value = "50"),
+            @Parameter(name = "optimizer", value = "pooled-lo"),
+            @Parameter(name = "initial_value", value = "1")
+    })
+    private Long id;
+
+    @Column(name = "jar_id", nullable = false)
+    private Long jarId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "deposit_id", nullable = false)
+    private Long depositId;
+
+    @Column(nullable = false)
+    private long seq;
+
+    @Column(nullable = false, length = 16)
+    private String type;
+
+    @Column(name = "delta_cents", nullable = false)
+    private long deltaCents;
+
+    // deposit amount after the event (0 for DELETED)
+    @Column(name = "amount_cents", nullable = false)
+    private long amountCents;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    protected DepositEventEntity() { }
+
+    public DepositEventEntity(Long jarId, Long userId, Long depositId, long seq, String type, long deltaCents, long amountCents, Instant createdAt) {
+        this.jarId = jarId;
+        this.userId = userId;
+        this.depositId = depositId;
+        this.seq = seq;
+        this.type = type;
+        this.deltaCents = deltaCents;
+        this.amountCents = amountCents;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() { return id; }
+    public Long getJarId() { return jarId; }
+    public Long getUserId() { return userId; }
+    public Long getDepositId() { return depositId; }
+    public long getSeq() { return seq; }
+    public String getType() { return type; }
+    public long getDeltaCents() { return deltaCents; }
+    public long getAmountCents() { return amountCents; }
+    public Instant getCreatedAt() { return createdAt; }
+}
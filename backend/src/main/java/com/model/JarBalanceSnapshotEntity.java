@@ -0,0 +1,48 @@
+package com.model;
+
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * A jar's ledger balance after event {@code seq}. {@code takenAt} is the latest event time covered, so every
+ * event up to seq happened at or before it. Written every finjar.ledger.snapshot-every events.
+ */
+@Entity
+@Immutable
+@Table(name = "jar_balance_snapshots",
+        uniqueConstraints = @UniqueConstraint(name = "uk_jbs_jar_seq", columnNames = {"jar_id", "seq"}),
+        indexes = @Index(name = "idx_jbs_jar_taken", columnList = "jar_id, taken_at"))
+public class JarBalanceSnapshotEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "jar_id", nullable = false)
+    private Long jarId;
+
+    @Column(nullable = false)
+    private long seq;
+
+    @Column(name = "balance_cents", nullable = false)
+    private long balanceCents;
+
+    @Column(name = "taken_at", nullable = false)
+    private Instant takenAt;
+
+    protected JarBalanceSnapshotEntity() { }
+
+    public JarBalanceSnapshotEntity(Long jarId, long seq, long balanceCents, Instant takenAt) {
+        this.jarId = jarId;
+        this.seq = seq;
+        this.balanceCents = balanceCents;
+        this.takenAt = takenAt;
+    }
+
+    public Long getId() { return id; }
+    public Long getJarId() { return jarId; }
+    public long getSeq() { return seq; }
+    public long getBalanceCents() { return balanceCents; }
+    public Instant getTakenAt() { return takenAt; }
+}
@@ -2,6 +2,7 @@ package com.model;
 
 import javax.persistence.*;
 import java.time.Instant;
+import java.time.LocalDate;
 
 @Entity
 @Table(name = "jars")
@@ -13,15 +14,21 @@ public class JarEntity {
     @Column(nullable = false, length = 140)
     private String name;
 
-    @Column(nullable = false)
-    private Double targetAmount;
+    // Amounts are long cents (see com.util.Money)
+    @Column(name = "target_amount_cents", nullable = false)
+    private long targetCents;
 
-    @Column(nullable = false)
-    private Double currentAmount = 0.0;
+    // Written only by JarRepo's atomic UPDATE statements, never by entity flushes (no lost updates)
+    @Column(name = "current_amount_cents", nullable = false, updatable = false)
+    private long currentCents = 0L;
 
     @Column(length = 400)
     private String description;
 
+    // Optional goal date; drives the required-monthly-amount projection
+    @Column(name = "target_date")
+    private LocalDate targetDate;
+
     @Column(nullable = false)
     private Instant createdAt = Instant.now();
 
@@ -31,12 +38,14 @@ public class JarEntity {
     public Long getId() { return id; }
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
-    public Double getTargetAmount() { return targetAmount; }
-    public void setTargetAmount(Double targetAmount) { this.targetAmount = targetAmount; }
-    public Double getCurrentAmount() { return currentAmount; }
-    public void setCurrentAmount(Double currentAmount) { this.currentAmount = currentAmount; }
+    public long getTargetCents() { return targetCents; }
+    public void setTargetCents(long targetCents) { this.targetCents = targetCents; }
+    public long getCurrentCents() { return currentCents; }
+    public void setCurrentCents(long currentCents) { this.currentCents = currentCents; }
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
+    public LocalDate getTargetDate() { return targetDate; }
+    public void setTargetDate(LocalDate targetDate) { this.targetDate = targetDate; }
     public Instant getCreatedAt() { return createdAt; }
     public UserEntity getUser() { return user; }
     public void setUser(UserEntity user) { this.user = user; }
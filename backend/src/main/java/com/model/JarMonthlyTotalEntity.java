@@ -0,0 +1,40 @@
+package com.model;
+
+import javax.persistence.*;
+
+/**
+ * Rollup of deposits per (jar, UTC month), maintained by MonthlyRollupService in the same transaction as
+ * every deposit write. Plain id columns rather than associations: rows are only read as aggregates.
+ */
+@Entity
+@Table(name = "jar_monthly_totals",
+        uniqueConstraints = @UniqueConstraint(name = "uk_jmt_jar_month", columnNames = {"jar_id", "yyyymm"}),
+        indexes = @Index(name = "idx_jmt_user_month", columnList = "user_id, yyyymm"))
+public class JarMonthlyTotalEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "jar_id", nullable = false)
+    private Long jarId;
+
+    // year * 100 + month, e.g. 202403
+    @Column(nullable = false)
+    private int yyyymm;
+
+    @Column(name = "amount_cents", nullable = false)
+    private long amountCents;
+
+    @Column(name = "deposit_count", nullable = false)
+    private long depositCount;
+
+    public Long getId() { return id; }
+    public Long getUserId() { return userId; }
+    public Long getJarId() { return jarId; }
+    public int getYyyymm() { return yyyymm; }
+    public long getAmountCents() { return amountCents; }
+    public long getDepositCount() { return depositCount; }
+}
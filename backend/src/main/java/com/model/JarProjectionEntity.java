@@ -0,0 +1,48 @@
+package com.model;
+
+import javax.persistence.*;
+
+/**
+ * Running savings-rate state for one jar (see com.util.GoalProjection): an exponentially weighted average of
+ * completed UTC months plus the still-open month. Updated in O(1) by GoalProjectionService on every deposit write.
+ */
+@Entity
+@Table(name = "jar_projections")
+public class JarProjectionEntity {
+    @Id
+    @Column(name = "jar_id")
+    private Long jarId;
+
+    // yyyymm of the jar's first deposit month; completed months are counted from here
+    @Column(name = "first_ym", nullable = false)
+    private int firstYm;
+
+    // yyyymm of the month still accumulating into openCents
+    @Column(name = "open_ym", nullable = false)
+    private int openYm;
+
+    @Column(name = "open_cents", nullable = false)
+    private long openCents;
+
+    // EWMA over completed months [firstYm, openYm), in cents, without bias correction
+    @Column(name = "ewma_cents", nullable = false)
+    private double ewmaCents;
+
+    protected JarProjectionEntity() { }
+
+    public JarProjectionEntity(Long jarId, int ym) {
+        this.jarId = jarId;
+        this.firstYm = ym;
+        this.openYm = ym;
+    }
+
+    public Long getJarId() { return jarId; }
+    public int getFirstYm() { return firstYm; }
+    public void setFirstYm(int firstYm) { this.firstYm = firstYm; }
+    public int getOpenYm() { return openYm; }
+    public void setOpenYm(int openYm) { this.openYm = openYm; }
+    public long getOpenCents() { return openCents; }
+    public void setOpenCents(long openCents) { this.openCents = openCents; }
+    public double getEwmaCents() { return ewmaCents; }
+    public void setEwmaCents(double ewmaCents) { this.ewmaCents = ewmaCents; }
+}
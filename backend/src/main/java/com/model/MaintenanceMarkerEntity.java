@@ -0,0 +1,26 @@
+package com.model;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/** When a named maintenance run last completed, e.g. MonthlyRollupService's rollup check. */
+@Entity
+@Table(name = "maintenance_markers")
+public class MaintenanceMarkerEntity {
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(name = "marked_at", nullable = false)
+    private Instant markedAt;
+
+    protected MaintenanceMarkerEntity() { }
+
+    public MaintenanceMarkerEntity(String name, Instant markedAt) {
+        this.name = name;
+        this.markedAt = markedAt;
+    }
+
+    public String getName() { return name; }
+    public Instant getMarkedAt() { return markedAt; }
+}
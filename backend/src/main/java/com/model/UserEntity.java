@@ -18,6 +18,10 @@ public class UserEntity {
     @Column(nullable = false, length = 120)
     private String passwordHash;
 
+    // Bumped to revoke every token issued before; carried in the JWT "tv" claim.
+    @Column(nullable = false)
+    private int tokenVersion = 0;
+
     public Long getId() { return id; }
     public String getEmail() { return email; }
     public void setEmail(String email) { this.email = email == null ? null : email.toLowerCase(); }
@@ -25,4 +29,6 @@ public class UserEntity {
     public void setName(String name) { this.name = name; }
     public String getPasswordHash() { return passwordHash; }
     public void setPasswordHash(String passwordHash) { this.passwordHash = passwordHash; }
+    public int getTokenVersion() { return tokenVersion; }
+    public void setTokenVersion(int tokenVersion) { this.tokenVersion = tokenVersion; }
 }
@@ -0,0 +1,38 @@
+package com.repo;
+
+import com.model.DepositEventEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface DepositEventRepo extends JpaRepository<DepositEventEntity, Long> {
+
+    // Seek on uk_dev_jar_seq (jar_id, seq); callers hold the jar's row lock
+    @Query("select coalesce(max(e.seq), 0) from DepositEventEntity e where e.jarId = :jarId")
+    long maxSeq(@Param("jarId") Long jarId);
+
+    // Tail after a snapshot: rows [sum(deltaCents), max(createdAt)]
+    @Query("select coalesce(sum(e.deltaCents), 0), max(e.createdAt) from DepositEventEntity e where e.jarId = :jarId and e.seq > :afterSeq and e.seq <= :toSeq")
+    List<Object[]> sumBetween(@Param("jarId") Long jarId, @Param("afterSeq") long afterSeq, @Param("toSeq") long toSeq);
+
+    @Query("select coalesce(sum(e.deltaCents), 0) from DepositEventEntity e where e.jarId = :jarId and e.seq > :afterSeq and e.createdAt < :until")
+    long sumAfterUntil(@Param("jarId") Long jarId, @Param("afterSeq") long afterSeq, @Param("until") Instant until);
+
+    // Range on idx_dev_created
+    @Query("select distinct e.jarId from DepositEventEntity e where e.createdAt >= :since order by e.jarId")
+    List<Long> findJarIdsChangedSince(@Param("since") Instant since);
+
+    @Query("select e from DepositEventEntity e where e.jarId = :jarId and e.seq > :afterSeq order by e.seq")
+    List<DepositEventEntity> findPage(@Param("jarId") Long jarId, @Param("afterSeq") long afterSeq, Pageable page);
+
+    @Transactional
+    @Modifying
+    @Query("delete from DepositEventEntity e where e.jarId = :jarId")
+    int deleteByJarId(@Param("jarId") Long jarId);
+}
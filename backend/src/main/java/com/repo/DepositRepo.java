@@ -1,12 +1,85 @@
 package com.repo;
 
+import com.dto.DepositView;
 import com.model.DepositEntity;
 import com.model.JarEntity;
 import com.model.UserEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 public interface DepositRepo extends JpaRepository<DepositEntity, Long> {
     List<DepositEntity> findByUser(UserEntity user);
     List<DepositEntity> findByJarAndUser(JarEntity jar, UserEntity user);
+
+    @Query("select d from DepositEntity d where d.id = :id and d.user.id = :userId")
+    Optional<DepositEntity> findByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Single DELETE ... WHERE jar_id = ? when a jar is removed
+    @Transactional
+    @Modifying
+    @Query("delete from DepositEntity d where d.jar.id = :jarId")
+    int deleteByJarId(@Param("jarId") Long jarId);
+
+    // Listing rows as DepositView constructor expressions (see JarRepo.findViewsByUserId)
+    @Query("select new com.dto.DepositView(d.id, d.jar.id, d.amountCents, d.description, d.createdAt, d.user.id) from DepositEntity d where d.user.id = :userId order by d.id")
+    List<DepositView> findViewsByUserId(@Param("userId") Long userId);
+
+    @Query("select new com.dto.DepositView(d.id, d.jar.id, d.amountCents, d.description, d.createdAt, d.user.id) from DepositEntity d where d.jar.id = :jarId and d.user.id = :userId order by d.id")
+    List<DepositView> findViewsByJarIdAndUserId(@Param("jarId") Long jarId, @Param("userId") Long userId);
+
+    // Compare-and-set on the amount the caller read; 0 rows means a concurrent edit/delete won
+    @Transactional
+    @Modifying
+    @Query("update DepositEntity d set d.amountCents = :amount where d.id = :id and d.amountCents = :expected")
+    int compareAndSetAmount(@Param("id") Long id, @Param("expected") long expectedCents, @Param("amount") long amountCents);
+
+    @Transactional
+    @Modifying
+    @Query("update DepositEntity d set d.description = :description where d.id = :id")
+    int updateDescription(@Param("id") Long id, @Param("description") String description);
+
+    @Transactional
+    @Modifying
+    @Query("delete from DepositEntity d where d.id = :id and d.amountCents = :expected")
+    int deleteIfAmount(@Param("id") Long id, @Param("expected") long expectedCents);
+
+    // Keyset pages, newest first on (createdAt, id); Pageable only carries the limit (always page 0).
+    // Rows are DepositView projections; createdInstant() keeps full precision for the cursor
+    @Query("select new com.dto.DepositView(d.id, d.jar.id, d.amountCents, d.description, d.createdAt, d.user.id) from DepositEntity d where d.user.id = :userId order by d.createdAt desc, d.id desc")
+    List<DepositView> pageByUser(@Param("userId") Long userId, Pageable limit);
+
+    @Query("select new com.dto.DepositView(d.id, d.jar.id, d.amountCents, d.description, d.createdAt, d.user.id) from DepositEntity d where d.user.id = :userId " +
+           "and (d.createdAt < :createdAt or (d.createdAt = :createdAt and d.id < :id)) order by d.createdAt desc, d.id desc")
+    List<DepositView> pageByUserAfter(@Param("userId") Long userId, @Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable limit);
+
+    @Query("select new com.dto.DepositView(d.id, d.jar.id, d.amountCents, d.description, d.createdAt, d.user.id) from DepositEntity d where d.jar.id = :jarId and d.user.id = :userId order by d.createdAt desc, d.id desc")
+    List<DepositView> pageByJar(@Param("jarId") Long jarId, @Param("userId") Long userId, Pageable limit);
+
+    @Query("select new com.dto.DepositView(d.id, d.jar.id, d.amountCents, d.description, d.createdAt, d.user.id) from DepositEntity d where d.jar.id = :jarId and d.user.id = :userId " +
+           "and (d.createdAt < :createdAt or (d.createdAt = :createdAt and d.id < :id)) order by d.createdAt desc, d.id desc")
+    List<DepositView> pageByJarAfter(@Param("jarId") Long jarId, @Param("userId") Long userId, @Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable limit);
+
+    // Report aggregates: rows are [jarId, sum(amountCents), count] / [year, month, sum(amountCents), count]
+    @Query("select d.jar.id, sum(d.amountCents), count(d) from DepositEntity d " +
+           "where d.user.id = :userId and d.createdAt >= :from and d.createdAt < :to and (:jarId is null or d.jar.id = :jarId) " +
+           "group by d.jar.id")
+    List<Object[]> sumByJar(@Param("userId") Long userId, @Param("from") Instant from, @Param("to") Instant to, @Param("jarId") Long jarId);
+
+    // Rows are [year, month, sum(amountCents), count] for one jar; compared against the monthly rollup
+    @Query("select year(d.createdAt), month(d.createdAt), sum(d.amountCents), count(d) from DepositEntity d where d.jar.id = :jarId " +
+           "group by year(d.createdAt), month(d.createdAt) order by year(d.createdAt), month(d.createdAt)")
+    List<Object[]> sumByMonthForJar(@Param("jarId") Long jarId);
+
+    @Query("select year(d.createdAt), month(d.createdAt), sum(d.amountCents), count(d) from DepositEntity d " +
+           "where d.user.id = :userId and d.createdAt >= :from and d.createdAt < :to and (:jarId is null or d.jar.id = :jarId) " +
+           "group by year(d.createdAt), month(d.createdAt) order by year(d.createdAt), month(d.createdAt)")
+    List<Object[]> sumByMonth(@Param("userId") Long userId, @Param("from") Instant from, @Param("to") Instant to, @Param("jarId") Long jarId);
 }
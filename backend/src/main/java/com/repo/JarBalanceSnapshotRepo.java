@@ -0,0 +1,27 @@
+package com.repo;
+
+import com.model.JarBalanceSnapshotEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface JarBalanceSnapshotRepo extends JpaRepository<JarBalanceSnapshotEntity, Long> {
+
+    // Newest first; callers pass PageRequest.of(0, 1)
+    @Query("select s from JarBalanceSnapshotEntity s where s.jarId = :jarId order by s.seq desc")
+    List<JarBalanceSnapshotEntity> findLatest(@Param("jarId") Long jarId, Pageable page);
+
+    @Query("select s from JarBalanceSnapshotEntity s where s.jarId = :jarId and s.takenAt < :until order by s.seq desc")
+    List<JarBalanceSnapshotEntity> findLatestBefore(@Param("jarId") Long jarId, @Param("until") Instant until, Pageable page);
+
+    @Transactional
+    @Modifying
+    @Query("delete from JarBalanceSnapshotEntity s where s.jarId = :jarId")
+    int deleteByJarId(@Param("jarId") Long jarId);
+}
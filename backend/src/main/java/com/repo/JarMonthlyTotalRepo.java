@@ -0,0 +1,52 @@
+package com.repo;
+
+import com.model.JarMonthlyTotalEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface JarMonthlyTotalRepo extends JpaRepository<JarMonthlyTotalEntity, Long> {
+
+    // One statement per write whether or not the month row exists yet (unique key jar_id, yyyymm)
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value =
+            "INSERT INTO jar_monthly_totals (user_id, jar_id, yyyymm, amount_cents, deposit_count) " +
+            "VALUES (:userId, :jarId, :yyyymm, :cents, :count) " +
+            "ON DUPLICATE KEY UPDATE amount_cents = amount_cents + VALUES(amount_cents), deposit_count = deposit_count + VALUES(deposit_count)")
+    int upsert(@Param("userId") Long userId, @Param("jarId") Long jarId, @Param("yyyymm") int yyyymm,
+               @Param("cents") long deltaCents, @Param("count") long deltaCount);
+
+    @Transactional
+    @Modifying
+    @Query("delete from JarMonthlyTotalEntity t where t.jarId = :jarId")
+    int deleteByJarId(@Param("jarId") Long jarId);
+
+    // Rebuild of one jar's rows from its deposits (created_at is stored in UTC)
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value =
+            "INSERT INTO jar_monthly_totals (user_id, jar_id, yyyymm, amount_cents, deposit_count) " +
+            "SELECT user_id, jar_id, YEAR(created_at) * 100 + MONTH(created_at), SUM(amount_cents), COUNT(*) " +
+            "FROM deposits WHERE jar_id = :jarId GROUP BY user_id, jar_id, YEAR(created_at) * 100 + MONTH(created_at)")
+    int rebuildJar(@Param("jarId") Long jarId);
+
+    // Rows are [yyyymm, amountCents, depositCount]
+    @Query("select t.yyyymm, t.amountCents, t.depositCount from JarMonthlyTotalEntity t where t.jarId = :jarId and t.depositCount <> 0 order by t.yyyymm")
+    List<Object[]> monthsForJar(@Param("jarId") Long jarId);
+
+    // Report aggregates over [fromYm, toYm]: rows are [jarId, sum(amountCents), sum(depositCount)] / [yyyymm, sum, count]
+    @Query("select t.jarId, sum(t.amountCents), sum(t.depositCount) from JarMonthlyTotalEntity t " +
+           "where t.userId = :userId and t.yyyymm between :fromYm and :toYm and (:jarId is null or t.jarId = :jarId) " +
+           "group by t.jarId having sum(t.depositCount) > 0")
+    List<Object[]> sumByJar(@Param("userId") Long userId, @Param("fromYm") int fromYm, @Param("toYm") int toYm, @Param("jarId") Long jarId);
+
+    @Query("select t.yyyymm, sum(t.amountCents), sum(t.depositCount) from JarMonthlyTotalEntity t " +
+           "where t.userId = :userId and t.yyyymm between :fromYm and :toYm and (:jarId is null or t.jarId = :jarId) " +
+           "group by t.yyyymm having sum(t.depositCount) > 0 order by t.yyyymm")
+    List<Object[]> sumByMonth(@Param("userId") Long userId, @Param("fromYm") int fromYm, @Param("toYm") int toYm, @Param("jarId") Long jarId);
+}
@@ -0,0 +1,32 @@
+package com.repo;
+
+import com.model.JarProjectionEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.LockModeType;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface JarProjectionRepo extends JpaRepository<JarProjectionEntity, Long> {
+
+    // Locking read: always sees the latest committed state even inside an older snapshot
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from JarProjectionEntity p where p.jarId = :jarId")
+    Optional<JarProjectionEntity> findForUpdate(@Param("jarId") Long jarId);
+
+    @Transactional
+    @Modifying
+    @Query("delete from JarProjectionEntity p where p.jarId = :jarId")
+    int deleteByJarId(@Param("jarId") Long jarId);
+
+    @Query("select j.id from JarEntity j " +
+           "where exists (select d.id from DepositEntity d where d.jar.id = j.id) " +
+           "and not exists (select p.jarId from JarProjectionEntity p where p.jarId = j.id) order by j.id")
+    List<Long> findJarIdsWithoutProjection();
+}
@@ -1,10 +1,69 @@
 package com.repo;
 
+import com.dto.JarView;
 import com.model.JarEntity;
 import com.model.UserEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.LockModeType;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface JarRepo extends JpaRepository<JarEntity, Long> {
     List<JarEntity> findByUser(UserEntity user);
+
+    // Ownership-scoped lookups: one statement answers both "exists" and "belongs to this user"
+    @Query("select j from JarEntity j where j.id = :id and j.user.id = :userId")
+    Optional<JarEntity> findByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Row lock on the jar: deposit writes take the same lock through the balance update
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select j.id from JarEntity j where j.id = :id")
+    Long lockById(@Param("id") Long id);
+
+    @Query("select j.id from JarEntity j order by j.id")
+    List<Long> findAllIds();
+
+    @Query("select count(j) > 0 from JarEntity j where j.id = :id and j.user.id = :userId")
+    boolean existsByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Query("select j from JarEntity j where j.id in :ids and j.user.id = :userId")
+    List<JarEntity> findAllByIdInAndUserId(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
+    // Response rows built by the query itself: no entity instances, proxies or persistence-context snapshots.
+    // The projection state is one primary-key join per jar, so ETAs cost nothing per deposit.
+    @Query("select new com.dto.JarView(j.id, j.name, j.targetCents, j.currentCents, j.description, j.createdAt, j.user.id, " +
+           "j.targetDate, p.firstYm, p.openYm, p.openCents, p.ewmaCents) " +
+           "from JarEntity j left join JarProjectionEntity p on p.jarId = j.id where j.user.id = :userId order by j.id")
+    List<JarView> findViewsByUserId(@Param("userId") Long userId);
+
+    // Balance changes are single-statement increments so concurrent deposits cannot lose updates
+    @Transactional
+    @Modifying
+    @Query("update JarEntity j set j.currentCents = j.currentCents + :delta where j.id = :id")
+    int addToCurrentAmount(@Param("id") Long id, @Param("delta") long deltaCents);
+
+    // Increment that doubles as the ownership check: 0 rows means no such jar for this user
+    @Transactional
+    @Modifying
+    @Query("update JarEntity j set j.currentCents = j.currentCents + :delta where j.id = :id and j.user.id = :userId")
+    int addToCurrentAmountOwned(@Param("id") Long id, @Param("userId") Long userId, @Param("delta") long deltaCents);
+
+    @Transactional
+    @Modifying
+    @Query("delete from JarEntity j where j.id = :id and j.user.id = :userId")
+    int deleteOwned(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Ledger-derived balance (JarService.recalc); the caller holds the jar's row lock
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update JarEntity j set j.currentCents = :cents where j.id = :id")
+    int setCurrentAmount(@Param("id") Long id, @Param("cents") long cents);
 }
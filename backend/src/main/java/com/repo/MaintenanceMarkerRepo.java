@@ -0,0 +1,7 @@
+package com.repo;
+
+import com.model.MaintenanceMarkerEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface MaintenanceMarkerRepo extends JpaRepository<MaintenanceMarkerEntity, String> {
+}
@@ -1,10 +1,32 @@
 package com.repo;
 
 import com.model.UserEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepo extends JpaRepository<UserEntity, Long> {
     Optional<UserEntity> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    @Query("select u.tokenVersion from UserEntity u where u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Long id);
+
+    // Hash upgrades only apply over the hash they were computed from; 0 rows means someone else already replaced it
+    @Transactional
+    @Modifying
+    @Query("update UserEntity u set u.passwordHash = :hash where u.id = :id and u.passwordHash = :expected")
+    int replacePasswordHash(@Param("id") Long id, @Param("expected") String expected, @Param("hash") String hash);
+
+    // Rows are [id, passwordHash] for hashes that are neither BCrypt nor already wrapped, in id order (keyset on afterId)
+    @Query("select u.id, u.passwordHash from UserEntity u where u.id > :afterId and u.passwordHash is not null " +
+           "and u.passwordHash not like :bcrypt and u.passwordHash not like :wrapped order by u.id")
+    List<Object[]> findLegacyHashesAfter(@Param("afterId") Long afterId, @Param("bcrypt") String bcryptPattern,
+                                         @Param("wrapped") String wrappedPattern, Pageable limit);
 }
@@ -0,0 +1,58 @@
+package com.service;
+
+import com.util.StripedRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login/register throttling ahead of any user lookup or BCrypt work: one token bucket per client IP (checked by
+ * AuthRateLimitInterceptor before the body is read) and one per email (checked by the handlers). Buckets are
+ * per-instance and bounded by finjar.auth.rate.table-size per key class.
+ * Metrics: finjar.auth.rate.rejected and finjar.auth.rate.evictions (tag key=ip|email), finjar.auth.rate.buckets.
+ */
+@Component
+public class AuthRateLimiter {
+    private final StripedRateLimiter byIp;
+    private final StripedRateLimiter byEmail;
+    private final Counter ipRejected;
+    private final Counter emailRejected;
+
+    public AuthRateLimiter(MeterRegistry registry,
+                           @Value("${finjar.auth.rate.ip.per-minute:30}") double ipPerMinute,
+                           @Value("${finjar.auth.rate.ip.burst:10}") int ipBurst,
+                           @Value("${finjar.auth.rate.email.per-minute:10}") double emailPerMinute,
+                           @Value("${finjar.auth.rate.email.burst:5}") int emailBurst,
+                           @Value("${finjar.auth.rate.table-size:65536}") int tableSize) {
+        this.byIp = new StripedRateLimiter(tableSize, ipPerMinute, ipBurst);
+        this.byEmail = new StripedRateLimiter(tableSize, emailPerMinute, emailBurst);
+        this.ipRejected = Counter.builder("finjar.auth.rate.rejected").tag("key", "ip").register(registry);
+        this.emailRejected = Counter.builder("finjar.auth.rate.rejected").tag("key", "email").register(registry);
+        FunctionCounter.builder("finjar.auth.rate.evictions", byIp, StripedRateLimiter::evictions).tag("key", "ip").register(registry);
+        FunctionCounter.builder("finjar.auth.rate.evictions", byEmail, StripedRateLimiter::evictions).tag("key", "email").register(registry);
+        Gauge.builder("finjar.auth.rate.buckets", byIp, StripedRateLimiter::size).tag("key", "ip").register(registry);
+        Gauge.builder("finjar.auth.rate.buckets", byEmail, StripedRateLimiter::size).tag("key", "email").register(registry);
+    }
+
+    /** Seconds to wait before the next attempt from this address, or 0 when allowed. */
+    public long checkIp(String ip) {
+        return check(byIp, ip, ipRejected);
+    }
+
+    /** Seconds to wait before the next attempt for this (lower-cased) email, or 0 when allowed. */
+    public long checkEmail(String email) {
+        return check(byEmail, email, emailRejected);
+    }
+
+    private static long check(StripedRateLimiter limiter, String key, Counter rejected) {
+        long waitNanos = limiter.tryAcquire(key);
+        if (waitNanos == 0) return 0;
+        rejected.increment();
+        return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+}
@@ -1,45 +1,118 @@
 package com.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.model.UserEntity;
 import com.repo.UserRepo;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class AuthService {
+    /** Marks a legacy hash wrapped in BCrypt by LegacyHashMigration: "{legacy}" + bcrypt(legacyHash(password)). */
+    public static final String LEGACY_WRAPPED_PREFIX = "{legacy}";
+
     private final UserRepo userRepo;
-    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
-    public AuthService(UserRepo userRepo) { this.userRepo = userRepo; }
+    private final PasswordHasher hasher;
+    private final LegacyHashUpgrader upgrader;
+    // Current token version per user id, so token checks normally need no DB read. Filled on login/register/revoke
+    // and, on a miss (restart, other instance, expiry), from the users row. Entries expire so a revocation made on
+    // another instance is seen within the TTL. A user id with no row is cached as NO_USER for the same TTL, so tokens
+    // of deleted users do not read the DB on every request either.
+    private static final int NO_USER = -1;
+    private final Cache<Long,Integer> tokenVersions;
+    public AuthService(UserRepo userRepo, PasswordHasher hasher, LegacyHashUpgrader upgrader,
+                       @Value("${finjar.auth.token-version-ttl-ms:60000}") long tokenVersionTtlMs,
+                       @Value("${finjar.auth.token-version-max-users:100000}") long maxUsers) {
+        this.userRepo = userRepo; this.hasher = hasher; this.upgrader = upgrader;
+        this.tokenVersions = Caffeine.newBuilder()
+                .expireAfterWrite(tokenVersionTtlMs, TimeUnit.MILLISECONDS)
+                .maximumSize(maxUsers)
+                .build();
+    }
 
     // Legacy simple hash (for existing seeded users) – keep for fallback validation
     private String legacyHash(String raw) { return Integer.toHexString((raw == null ? "" : raw).hashCode()); }
     private boolean isLegacy(String stored) { return stored != null && !stored.startsWith("$2a$") && !stored.startsWith("$2b$") && !stored.startsWith("$2y$"); }
+    private boolean isWrappedLegacy(String stored) { return stored != null && stored.startsWith(LEGACY_WRAPPED_PREFIX); }
 
-    @Transactional
-    public UserEntity register(String email, String name, String password) {
-        if (userRepo.existsByEmail(email.toLowerCase())) throw new IllegalArgumentException("Email already registered");
-        UserEntity u = new UserEntity();
-        u.setEmail(email.toLowerCase());
-        u.setName(name);
-        u.setPasswordHash(encoder.encode(password));
-        return userRepo.save(u);
+    // BCrypt runs on the PasswordHasher pool; the returned futures complete there (or fail with
+    // RejectedExecutionException when the pool is saturated). Lookups and saves are short single statements.
+
+    /** Completes exceptionally with IllegalArgumentException when the email is taken. */
+    public CompletableFuture<UserEntity> register(String email, String name, String password) {
+        if (userRepo.existsByEmail(email.toLowerCase())) {
+            CompletableFuture<UserEntity> taken = new CompletableFuture<>();
+            taken.completeExceptionally(new IllegalArgumentException("Email already registered"));
+            return taken;
+        }
+        return hasher.encode(password).thenApply(hash -> {
+            UserEntity u = new UserEntity();
+            u.setEmail(email.toLowerCase());
+            u.setName(name);
+            u.setPasswordHash(hash);
+            UserEntity saved = userRepo.save(u);
+            remember(saved);
+            return saved;
+        });
+    }
+
+    /** Completes with the user, or null when the email is unknown or the password does not match. */
+    public CompletableFuture<UserEntity> authenticate(String email, String password) {
+        UserEntity u = userRepo.findByEmail(email.toLowerCase()).orElse(null);
+        if (u == null) return CompletableFuture.completedFuture(null);
+        String stored = u.getPasswordHash();
+        // Legacy and wrapped-legacy matches are upgraded to plain BCrypt in the background, not in this login
+        if (isWrappedLegacy(stored)) {
+            return hasher.matches(legacyHash(password), stored.substring(LEGACY_WRAPPED_PREFIX.length())).thenApply(matches -> {
+                if (!matches) return null;
+                upgradeLater(u, stored, password);
+                remember(u);
+                return u;
+            });
+        }
+        if (isLegacy(stored)) {
+            if (!stored.equals(legacyHash(password))) return CompletableFuture.completedFuture(null);
+            upgradeLater(u, stored, password);
+            remember(u);
+            return CompletableFuture.completedFuture(u);
+        }
+        return hasher.matches(password, stored).thenApply(matches -> {
+            if (!matches) return null;
+            remember(u);
+            return u;
+        });
     }
 
-    public UserEntity authenticate(String email, String password) {
-        return userRepo.findByEmail(email.toLowerCase()).map(u -> {
-            String stored = u.getPasswordHash();
-            boolean matches;
-            if (isLegacy(stored)) {
-                matches = stored.equals(legacyHash(password));
-                if (matches) { // upgrade transparently
-                    u.setPasswordHash(encoder.encode(password));
-                    userRepo.save(u);
-                }
-            } else {
-                matches = encoder.matches(password, stored);
-            }
-            return matches ? u : null;
-        }).orElse(null);
+    // The new hash is computed on the hasher pool like any other, without holding up the login; only the finished
+    // hash is queued. A rejected or failed hash leaves the upgrade to a later login.
+    private void upgradeLater(UserEntity u, String stored, String password) {
+        if (upgrader.isPending(u.getId())) return;
+        hasher.encode(password).thenAccept(hash -> upgrader.enqueue(u.getId(), stored, hash));
+    }
+
+    // Versions only grow: a row read before a concurrent revocation must not replace the newer version
+    private void remember(UserEntity u) {
+        tokenVersions.asMap().merge(u.getId(), u.getTokenVersion(), Math::max);
+    }
+
+    /** False for tokens older than the user's last revocation and for users that no longer exist. */
+    public boolean isTokenVersionCurrent(Long userId, int tokenVersion) {
+        int current = tokenVersions.get(userId, id -> userRepo.findTokenVersionById(id).orElse(NO_USER));
+        return current != NO_USER && tokenVersion >= current;
+    }
+
+    /** Invalidates every token issued to the user so far. */
+    @Transactional
+    public void revokeTokens(Long userId) {
+        userRepo.findById(userId).ifPresent(u -> {
+            u.setTokenVersion(u.getTokenVersion() + 1);
+            userRepo.save(u);
+            remember(u);
+        });
     }
 }
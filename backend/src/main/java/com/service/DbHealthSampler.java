@@ -0,0 +1,189 @@
+package com.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Database health from a background probe instead of a connection per health request. One thread checks out a
+ * connection and validates it every finjar.db.health.interval-ms; /api/db/ping, /api/health and the actuator "db"
+ * indicator (this bean, replacing Spring Boot's) only read the last published {@link Snapshot}.
+ * <p>
+ * Latency percentiles cover the last finjar.db.health.window successful probes (a ring buffer). The circuit opens
+ * after failure-threshold consecutive failed probes and closes again after success-threshold consecutive
+ * successes (HALF_OPEN in between); the database counts as up only while it is CLOSED. A snapshot older than three
+ * intervals plus the probe timeout (probe stuck, e.g. waiting for a pooled connection) reads as UNKNOWN.
+ * Metrics: finjar.db.health.up, finjar.db.health.latency (ms, last probe), finjar.db.health.circuit (0 closed,
+ * 1 half-open, 2 open).
+ */
+@Component("dbHealthIndicator")
+public class DbHealthSampler implements HealthIndicator {
+    private static final Logger log = LoggerFactory.getLogger(DbHealthSampler.class);
+
+    public enum Circuit { CLOSED, HALF_OPEN, OPEN }
+
+    /** Immutable result of the latest probe plus the rolling latency statistics. */
+    public static final class Snapshot {
+        public final String status;
+        public final Circuit circuit;
+        public final long checkedAt;
+        public final long latencyMs;
+        public final long p50Ms;
+        public final long p95Ms;
+        public final long maxMs;
+        public final int samples;
+        public final int consecutiveFailures;
+        public final String error;
+
+        Snapshot(String status, Circuit circuit, long checkedAt, long latencyMs, long p50Ms, long p95Ms, long maxMs,
+                 int samples, int consecutiveFailures, String error) {
+            this.status = status; this.circuit = circuit; this.checkedAt = checkedAt; this.latencyMs = latencyMs;
+            this.p50Ms = p50Ms; this.p95Ms = p95Ms; this.maxMs = maxMs; this.samples = samples;
+            this.consecutiveFailures = consecutiveFailures; this.error = error;
+        }
+
+        public boolean isUp() { return "UP".equals(status); }
+
+        public Map<String, Object> toMap(long now) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("status", status);
+            m.put("circuit", circuit.name());
+            m.put("latencyMs", latencyMs);
+            m.put("p50Ms", p50Ms);
+            m.put("p95Ms", p95Ms);
+            m.put("maxMs", maxMs);
+            m.put("samples", samples);
+            m.put("consecutiveFailures", consecutiveFailures);
+            m.put("checkedAt", checkedAt);
+            m.put("ageMs", checkedAt == 0 ? null : now - checkedAt);
+            if (error != null) m.put("error", error);
+            return m;
+        }
+    }
+
+    private static final Snapshot NOT_YET_CHECKED = new Snapshot("UNKNOWN", Circuit.CLOSED, 0, 0, 0, 0, 0, 0, 0, null);
+
+    private final DataSource dataSource;
+    private final long intervalMs;
+    private final int timeoutSeconds;
+    private final int failureThreshold;
+    private final int successThreshold;
+    private final long staleAfterMs;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "db-health");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Probe state, touched only by the scheduler thread
+    private final long[] window;
+    private int next;
+    private int filled;
+    private Circuit circuit = Circuit.CLOSED;
+    private int failures;
+    private int successes;
+
+    private volatile Snapshot snapshot = NOT_YET_CHECKED;
+
+    public DbHealthSampler(DataSource dataSource, MeterRegistry registry,
+                           @Value("${finjar.db.health.interval-ms:5000}") long intervalMs,
+                           @Value("${finjar.db.health.timeout-ms:2000}") long timeoutMs,
+                           @Value("${finjar.db.health.window:120}") int window,
+                           @Value("${finjar.db.health.failure-threshold:3}") int failureThreshold,
+                           @Value("${finjar.db.health.success-threshold:2}") int successThreshold) {
+        this.dataSource = dataSource;
+        this.intervalMs = Math.max(100, intervalMs);
+        this.timeoutSeconds = (int) Math.max(1, (timeoutMs + 999) / 1000);
+        this.window = new long[Math.max(1, window)];
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.successThreshold = Math.max(1, successThreshold);
+        this.staleAfterMs = 3 * this.intervalMs + timeoutSeconds * 1000L;
+        Gauge.builder("finjar.db.health.up", this, s -> s.current().isUp() ? 1 : 0).register(registry);
+        Gauge.builder("finjar.db.health.latency", this, s -> s.snapshot.latencyMs).baseUnit("milliseconds").register(registry);
+        Gauge.builder("finjar.db.health.circuit", this, s -> s.snapshot.circuit.ordinal()).register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::probe, 0, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /** Latest probe result; O(1), never touches the database. */
+    public Snapshot current() {
+        Snapshot s = snapshot;
+        if (s.checkedAt != 0 && System.currentTimeMillis() - s.checkedAt > staleAfterMs) {
+            return new Snapshot("UNKNOWN", s.circuit, s.checkedAt, s.latencyMs, s.p50Ms, s.p95Ms, s.maxMs,
+                    s.samples, s.consecutiveFailures, "no probe result for " + (System.currentTimeMillis() - s.checkedAt) + " ms");
+        }
+        return s;
+    }
+
+    @Override
+    public Health health() {
+        Snapshot s = current();
+        Health.Builder b = s.isUp() ? Health.up() : "UNKNOWN".equals(s.status) ? Health.unknown() : Health.down();
+        return b.withDetails(s.toMap(System.currentTimeMillis())).build();
+    }
+
+    void probe() {
+        long start = System.nanoTime();
+        String error = null;
+        try (Connection c = dataSource.getConnection()) {
+            if (!c.isValid(timeoutSeconds)) error = "Connection not valid";
+        } catch (Exception e) {
+            error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        }
+        long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (error == null) {
+            window[next] = latencyMs;
+            next = (next + 1) % window.length;
+            if (filled < window.length) filled++;
+            failures = 0;
+            successes++;
+            if (circuit == Circuit.OPEN) circuit = Circuit.HALF_OPEN;
+            if (circuit == Circuit.HALF_OPEN && successes >= successThreshold) {
+                circuit = Circuit.CLOSED;
+                log.info("[FinJar] Database reachable again ({} ms)", latencyMs);
+            }
+        } else {
+            successes = 0;
+            failures++;
+            if (circuit != Circuit.OPEN && (circuit == Circuit.HALF_OPEN || failures >= failureThreshold)) {
+                circuit = Circuit.OPEN;
+                log.warn("[FinJar] Database health circuit open after {} failed probes: {}", failures, error);
+            }
+        }
+        long[] sorted = Arrays.copyOf(window, filled);
+        Arrays.sort(sorted);
+        snapshot = new Snapshot(circuit == Circuit.CLOSED ? "UP" : "DOWN", circuit, System.currentTimeMillis(), latencyMs,
+                percentile(sorted, 0.50), percentile(sorted, 0.95), filled == 0 ? 0 : sorted[filled - 1],
+                filled, failures, error);
+    }
+
+    private static long percentile(long[] sorted, double q) {
+        if (sorted.length == 0) return 0;
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(q * sorted.length) - 1)];
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
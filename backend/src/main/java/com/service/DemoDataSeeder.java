@@ -0,0 +1,45 @@
+package com.service;
+
+import com.model.JarEntity;
+import com.model.UserEntity;
+import com.repo.JarRepo;
+import com.repo.UserRepo;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Demo user (john@example.com / password) with three jars, created on an empty database once the application is
+ * ready (opt-in: finjar.seed.demo=true). Runs after startup so the emptiness check is off the boot path.
+ */
+@Component
+@ConditionalOnProperty(name = "finjar.seed.demo", havingValue = "true")
+public class DemoDataSeeder {
+    private final UserRepo userRepo;
+    private final JarRepo jarRepo;
+    private final AuthService authService;
+    private final JarService jarService;
+
+    public DemoDataSeeder(UserRepo userRepo, JarRepo jarRepo, AuthService authService, JarService jarService) {
+        this.userRepo = userRepo;
+        this.jarRepo = jarRepo;
+        this.authService = authService;
+        this.jarService = jarService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedIfEmpty() {
+        if (userRepo.count() == 0) {
+            UserEntity demo = authService.register("john@example.com", "John Doe", "password").join();
+            JarEntity j1 = jarService.create(demo, "Emergency Fund", 100000L, "Basic safety net", null);
+            jarRepo.addToCurrentAmount(j1.getId(), 50000L);
+            JarEntity j2 = jarService.create(demo, "Vacation", 250000L, "Trip to mountains", null);
+            jarRepo.addToCurrentAmount(j2.getId(), 85000L);
+            JarEntity j3 = jarService.create(demo, "New Laptop", 180000L, "Upgrade gear", null);
+            jarRepo.addToCurrentAmount(j3.getId(), 30000L);
+            jarService.addDeposit(demo, j1, 30000L, "Initial seed");
+            jarService.addDeposit(demo, j1, 20000L, "Monthly save");
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.service;
+
+/** One validated line of a batch deposit request. */
+public class DepositDraft {
+    private final Long jarId;
+    private final long amountCents;
+    private final String description;
+
+    public DepositDraft(Long jarId, long amountCents, String description) {
+        this.jarId = jarId;
+        this.amountCents = amountCents;
+        this.description = description;
+    }
+
+    public Long getJarId() { return jarId; }
+    public long getAmountCents() { return amountCents; }
+    public String getDescription() { return description; }
+}
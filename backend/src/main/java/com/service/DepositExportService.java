@@ -0,0 +1,167 @@
+package com.service;
+
+import com.config.ReplicaRouting;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.model.DepositEntity;
+import com.util.Money;
+import org.hibernate.annotations.QueryHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+/**
+ * Streams a user's full deposit history as CSV or NDJSON in constant memory.
+ * Rows come from a forward-only JDBC cursor (MySQL: fetch size Integer.MIN_VALUE streams row by row)
+ * and the persistence context is cleared every {@value #CLEAR_EVERY} rows.
+ * Each export pins one pooled connection for its duration, so concurrent exports are capped.
+ */
+@Service
+public class DepositExportService {
+    private static final int CLEAR_EVERY = 500;
+
+    public enum Format {
+        CSV("text/csv", "csv"), NDJSON("application/x-ndjson", "ndjson");
+
+        public final String contentType;
+        public final String extension;
+        Format(String contentType, String extension) { this.contentType = contentType; this.extension = extension; }
+
+        public static Format from(String s) {
+            if (s == null) return CSV;
+            for (Format f : values()) if (f.extension.equalsIgnoreCase(s)) return f;
+            return null;
+        }
+    }
+
+    @PersistenceContext
+    private EntityManager em;
+    private final TransactionTemplate readOnlyTx;
+    private final ObjectMapper objectMapper;
+    private final ReplicaRouting routing;
+    private final int fetchSize;
+    private final Semaphore slots;
+
+    public DepositExportService(PlatformTransactionManager txManager, ObjectMapper objectMapper, ReplicaRouting routing,
+                                @Value("${finjar.export.fetch-size:-2147483648}") int fetchSize,
+                                @Value("${finjar.export.max-concurrent:2}") int maxConcurrent) {
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.routing = routing;
+        this.fetchSize = fetchSize;
+        this.slots = new Semaphore(maxConcurrent);
+    }
+
+    /** Returns the response body for an export, or null when the concurrent-export limit is reached. */
+    public StreamingResponseBody open(Long userId, Format format) {
+        if (!slots.tryAcquire()) return null;
+        return out -> {
+            try {
+                export(userId, format, out);
+            } finally {
+                slots.release();
+            }
+        };
+    }
+
+    public long export(Long userId, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+        try {
+            Long rows = readOnlyTx.execute(status -> {
+                routing.readingFor(userId);
+                try (Stream<DepositEntity> stream = em.createQuery(
+                                "select d from DepositEntity d where d.user.id = :userId order by d.createdAt, d.id", DepositEntity.class)
+                        .setParameter("userId", userId)
+                        .setHint(QueryHints.FETCH_SIZE, fetchSize)
+                        .setHint(QueryHints.READ_ONLY, true)
+                        .getResultStream()) {
+                    return format == Format.CSV ? writeCsv(stream.iterator(), writer) : writeNdjson(stream.iterator(), writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+            return rows == null ? 0 : rows;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private long writeCsv(Iterator<DepositEntity> rows, Writer w) throws IOException {
+        w.write("id,jarId,amount,description,createdAt\n");
+        long n = 0;
+        while (rows.hasNext()) {
+            DepositEntity d = rows.next();
+            w.write(String.valueOf(d.getId()));
+            w.write(',');
+            w.write(String.valueOf(d.getJar().getId())); // id of an uninitialized proxy: no extra query
+            w.write(',');
+            w.write(Money.format(d.getAmountCents()));
+            w.write(',');
+            writeCsvField(w, d.getDescription());
+            w.write(',');
+            w.write(d.getCreatedAt() == null ? "" : d.getCreatedAt().toString());
+            w.write('\n');
+            if (++n % CLEAR_EVERY == 0) release(w);
+        }
+        return n;
+    }
+
+    private long writeNdjson(Iterator<DepositEntity> rows, Writer w) throws IOException {
+        JsonGenerator gen = objectMapper.getFactory().createGenerator(w);
+        gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        long n = 0;
+        while (rows.hasNext()) {
+            DepositEntity d = rows.next();
+            gen.writeStartObject();
+            gen.writeNumberField("id", d.getId());
+            gen.writeNumberField("jarId", d.getJar().getId());
+            gen.writeNumberField("amount", Money.toDecimal(d.getAmountCents()));
+            gen.writeStringField("description", d.getDescription());
+            if (d.getCreatedAt() == null) gen.writeNullField("createdAt");
+            else gen.writeNumberField("createdAt", d.getCreatedAt().toEpochMilli());
+            gen.writeEndObject();
+            gen.writeRaw('\n');
+            if (++n % CLEAR_EVERY == 0) {
+                gen.flush();
+                release(w);
+            }
+        }
+        gen.flush();
+        return n;
+    }
+
+    // Drop managed entities (and their snapshots) and push buffered bytes to the client
+    private void release(Writer w) throws IOException {
+        em.clear();
+        w.flush();
+    }
+
+    private static void writeCsvField(Writer w, String value) throws IOException {
+        if (value == null) return;
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            w.write(value);
+            return;
+        }
+        w.write('"');
+        w.write(value.replace("\"", "\"\""));
+        w.write('"');
+    }
+}
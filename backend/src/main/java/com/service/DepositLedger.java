@@ -0,0 +1,96 @@
+package com.service;
+
+import com.model.DepositEntity;
+import com.model.DepositEventEntity;
+import com.model.JarBalanceSnapshotEntity;
+import com.repo.DepositEventRepo;
+import com.repo.JarBalanceSnapshotRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only ledger of deposit events per jar plus a balance snapshot every {@code snapshot-every} events.
+ * Any balance, current or as of an instant, is the latest suitable snapshot plus the events after it, so
+ * rebuilding costs O(events since snapshot) rather than O(deposits).
+ * <p>
+ * JarService appends inside the deposit transaction after the balance update, i.e. under the jar's row lock,
+ * which is what makes max(seq) + 1 a safe next sequence number. Existing deposits were backfilled as CREATED
+ * events by V8__deposit_ledger.
+ */
+@Service
+public class DepositLedger {
+    private static final PageRequest FIRST = PageRequest.of(0, 1);
+
+    private final DepositEventRepo eventRepo;
+    private final JarBalanceSnapshotRepo snapshotRepo;
+    private final long snapshotEvery;
+
+    public DepositLedger(DepositEventRepo eventRepo, JarBalanceSnapshotRepo snapshotRepo,
+                         @Value("${finjar.ledger.snapshot-every:100}") long snapshotEvery) {
+        this.eventRepo = eventRepo;
+        this.snapshotRepo = snapshotRepo;
+        this.snapshotEvery = Math.max(1, snapshotEvery);
+    }
+
+    /** Appends one event; must run inside the caller's transaction, under the jar's row lock. */
+    public void append(Long userId, Long jarId, Long depositId, String type, long deltaCents, long amountCents) {
+        long prev = eventRepo.maxSeq(jarId);
+        eventRepo.save(new DepositEventEntity(jarId, userId, depositId, prev + 1, type, deltaCents, amountCents, Instant.now()));
+        snapshotIfDue(jarId, prev, prev + 1);
+    }
+
+    /** CREATED events for deposits just inserted into one jar, numbered in list order and saved as one batch. */
+    public void appendCreated(Long userId, Long jarId, List<DepositEntity> deposits) {
+        if (deposits.isEmpty()) return;
+        long prev = eventRepo.maxSeq(jarId);
+        long seq = prev;
+        List<DepositEventEntity> events = new ArrayList<>(deposits.size());
+        for (DepositEntity d : deposits) {
+            events.add(new DepositEventEntity(jarId, userId, d.getId(), ++seq, DepositEventEntity.CREATED, d.getAmountCents(), d.getAmountCents(), Instant.now()));
+        }
+        eventRepo.saveAll(events);
+        snapshotIfDue(jarId, prev, seq);
+    }
+
+    public void deleteJar(Long jarId) {
+        eventRepo.deleteByJarId(jarId);
+        snapshotRepo.deleteByJarId(jarId);
+    }
+
+    /** Current ledger balance: latest snapshot plus the events after it. */
+    public long balance(Long jarId) {
+        List<JarBalanceSnapshotEntity> snap = snapshotRepo.findLatest(jarId, FIRST);
+        long base = snap.isEmpty() ? 0L : snap.get(0).getBalanceCents();
+        long afterSeq = snap.isEmpty() ? 0L : snap.get(0).getSeq();
+        return base + ((Number) eventRepo.sumBetween(jarId, afterSeq, Long.MAX_VALUE).get(0)[0]).longValue();
+    }
+
+    /** Balance including every event before {@code until}. */
+    public long balanceBefore(Long jarId, Instant until) {
+        List<JarBalanceSnapshotEntity> snap = snapshotRepo.findLatestBefore(jarId, until, FIRST);
+        long base = snap.isEmpty() ? 0L : snap.get(0).getBalanceCents();
+        long afterSeq = snap.isEmpty() ? 0L : snap.get(0).getSeq();
+        return base + eventRepo.sumAfterUntil(jarId, afterSeq, until);
+    }
+
+    public List<DepositEventEntity> events(Long jarId, long afterSeq, int limit) {
+        return eventRepo.findPage(jarId, afterSeq, PageRequest.of(0, limit));
+    }
+
+    // One snapshot whenever the appended range crosses a multiple of snapshotEvery
+    private void snapshotIfDue(Long jarId, long prevSeq, long lastSeq) {
+        if (prevSeq / snapshotEvery == lastSeq / snapshotEvery) return;
+        List<JarBalanceSnapshotEntity> snap = snapshotRepo.findLatest(jarId, FIRST);
+        long base = snap.isEmpty() ? 0L : snap.get(0).getBalanceCents();
+        long afterSeq = snap.isEmpty() ? 0L : snap.get(0).getSeq();
+        Object[] tail = eventRepo.sumBetween(jarId, afterSeq, lastSeq).get(0);
+        Instant takenAt = (Instant) tail[1];
+        if (!snap.isEmpty() && (takenAt == null || takenAt.isBefore(snap.get(0).getTakenAt()))) takenAt = snap.get(0).getTakenAt();
+        snapshotRepo.save(new JarBalanceSnapshotEntity(jarId, lastSeq, base + ((Number) tail[0]).longValue(), takenAt));
+    }
+}
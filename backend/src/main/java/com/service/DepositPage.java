@@ -0,0 +1,19 @@
+package com.service;
+
+import com.dto.DepositView;
+
+import java.util.List;
+
+/** One keyset page of deposits; nextCursor is null on the last page. */
+public class DepositPage {
+    private final List<DepositView> items;
+    private final String nextCursor;
+
+    public DepositPage(List<DepositView> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<DepositView> getItems() { return items; }
+    public String getNextCursor() { return nextCursor; }
+}
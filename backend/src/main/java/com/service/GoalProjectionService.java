@@ -0,0 +1,138 @@
+package com.service;
+
+import com.model.JarProjectionEntity;
+import com.repo.JarMonthlyTotalRepo;
+import com.repo.JarProjectionRepo;
+import com.repo.JarRepo;
+import com.util.GoalProjection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Maintains jar_projections, the O(1) savings-rate state behind the ETA fields of GET /api/jars.
+ * JarService calls {@link #apply} next to the monthly rollup, inside the deposit transaction and under the
+ * jar's row lock, so the read-modify-write of a jar's state never interleaves with another writer.
+ * A jar's state is rebuilt from its jar_monthly_totals rows when it has none yet: on its next deposit change, or,
+ * for jars with deposits but no state (older data), once after startup.
+ */
+@Service
+public class GoalProjectionService {
+    private static final Logger log = LoggerFactory.getLogger(GoalProjectionService.class);
+
+    private final JarProjectionRepo projectionRepo;
+    private final JarMonthlyTotalRepo rollupRepo;
+    private final JarRepo jarRepo;
+    private final ListingVersions versions;
+    private final TransactionTemplate tx;
+
+    public GoalProjectionService(JarProjectionRepo projectionRepo, JarMonthlyTotalRepo rollupRepo, JarRepo jarRepo,
+                                 ListingVersions versions, PlatformTransactionManager txManager) {
+        this.projectionRepo = projectionRepo;
+        this.rollupRepo = rollupRepo;
+        this.jarRepo = jarRepo;
+        this.versions = versions;
+        this.tx = new TransactionTemplate(txManager);
+    }
+
+    /**
+     * Applies a deposit amount change dated {@code createdAt}; must run inside the caller's transaction, after the
+     * same change was recorded in the monthly rollup (a rebuild reads the rollup and so already includes it).
+     */
+    public void apply(Long jarId, Instant createdAt, long deltaCents) {
+        apply(jarId, GoalProjection.yyyymm(createdAt), deltaCents);
+    }
+
+    public void apply(Long jarId, int ym, long deltaCents) {
+        if (deltaCents == 0) return;
+        JarProjectionEntity p = projectionRepo.findForUpdate(jarId).orElse(null);
+        if (p == null) {
+            // state from this delta alone would miss the jar's earlier months, and the backfill skips jars with state
+            p = new JarProjectionEntity(jarId, ym);
+            rebuild(p);
+            if (p.getFirstYm() != 0) projectionRepo.save(p);
+        } else if (ym < p.getFirstYm()) {
+            rebuild(p); // predates the state; happens only for imported history
+        } else {
+            fold(p, ym, deltaCents);
+        }
+    }
+
+    /** The jar's projection state, or null while it has none (no deposits yet). */
+    public JarProjectionEntity find(Long jarId) {
+        return projectionRepo.findById(jarId).orElse(null);
+    }
+
+    public void deleteJar(Long jarId) {
+        projectionRepo.deleteByJarId(jarId);
+    }
+
+    private static void fold(JarProjectionEntity p, int ym, long deltaCents) {
+        if (ym == p.getOpenYm()) {
+            p.setOpenCents(p.getOpenCents() + deltaCents);
+        } else if (ym > p.getOpenYm()) {
+            p.setEwmaCents(GoalProjection.fold(p.getEwmaCents(), p.getOpenCents(), GoalProjection.monthsBetween(p.getOpenYm(), ym)));
+            p.setOpenYm(ym);
+            p.setOpenCents(deltaCents);
+        } else {
+            // amend a completed month in place: its contribution to the EWMA is linear in its total
+            p.setEwmaCents(p.getEwmaCents() + GoalProjection.weight(GoalProjection.monthsBetween(ym, p.getOpenYm())) * deltaCents);
+        }
+    }
+
+    /** Recomputes the state from the jar's jar_monthly_totals rows (O(months)); firstYm stays 0 when there are none. */
+    private void rebuild(JarProjectionEntity p) {
+        List<Object[]> months = rollupRepo.monthsForJar(p.getJarId());
+        if (months.isEmpty()) {
+            projectionRepo.delete(p);
+            p.setFirstYm(0);
+            return;
+        }
+        int first = ((Number) months.get(0)[0]).intValue();
+        p.setFirstYm(first);
+        p.setOpenYm(first);
+        p.setOpenCents(0L);
+        p.setEwmaCents(0.0);
+        for (Object[] row : months) {
+            fold(p, ((Number) row[0]).intValue(), ((Number) row[1]).longValue());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStart() {
+        Thread t = new Thread(this::backfill, "projection-backfill");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /** Builds state for every jar that has deposits but none yet; returns the number of jars built. */
+    public int backfill() {
+        int built = 0;
+        try {
+            for (Long jarId : projectionRepo.findJarIdsWithoutProjection()) {
+                Boolean done = tx.execute(status -> {
+                    if (jarRepo.lockById(jarId) == null || projectionRepo.findForUpdate(jarId).isPresent()) return false;
+                    JarProjectionEntity p = new JarProjectionEntity(jarId, 0);
+                    rebuild(p);
+                    if (p.getFirstYm() != 0) projectionRepo.save(p);
+                    return true;
+                });
+                if (Boolean.TRUE.equals(done)) built++;
+            }
+            if (built > 0) {
+                versions.invalidateAll(); // jar listings served before now lack these projections
+                log.info("Goal projections built for {} jar(s)", built);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Goal projection backfill failed after {} jar(s): {}", built, e.toString());
+        }
+        return built;
+    }
+}
@@ -0,0 +1,63 @@
+package com.service;
+
+import com.dto.JarView;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.util.Money;
+
+/**
+ * A committed change to one of a user's jars, published by JarService and pushed to /api/stream/jars after commit.
+ * The type doubles as the SSE event name: "balance" carries the delta to apply to currentAmount,
+ * "created"/"updated" carry the full jar row, "deleted" only the id, and "deposits" (a description-only deposit edit)
+ * only the jar id.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public final class JarChangedEvent {
+    public static final String BALANCE = "balance";
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+    public static final String DEPOSITS = "deposits";
+
+    private final Long userId;
+    private final String type;
+    private final Long jarId;
+    private final Long deltaCents;
+    private final JarView jar;
+
+    private JarChangedEvent(Long userId, String type, Long jarId, Long deltaCents, JarView jar) {
+        this.userId = userId;
+        this.type = type;
+        this.jarId = jarId;
+        this.deltaCents = deltaCents;
+        this.jar = jar;
+    }
+
+    public static JarChangedEvent balance(Long userId, Long jarId, long deltaCents) {
+        return new JarChangedEvent(userId, BALANCE, jarId, deltaCents, null);
+    }
+
+    public static JarChangedEvent created(Long userId, JarView jar) {
+        return new JarChangedEvent(userId, CREATED, jar.getId(), null, jar);
+    }
+
+    public static JarChangedEvent updated(Long userId, JarView jar) {
+        return new JarChangedEvent(userId, UPDATED, jar.getId(), null, jar);
+    }
+
+    public static JarChangedEvent deleted(Long userId, Long jarId) {
+        return new JarChangedEvent(userId, DELETED, jarId, null, null);
+    }
+
+    public static JarChangedEvent deposits(Long userId, Long jarId) {
+        return new JarChangedEvent(userId, DEPOSITS, jarId, null, null);
+    }
+
+    @JsonIgnore
+    public Long getUserId() { return userId; }
+    @JsonIgnore
+    public String getType() { return type; }
+    public Long getJarId() { return jarId; }
+    public Double getDelta() { return deltaCents == null ? null : Money.toDecimal(deltaCents); }
+    public JarView getJar() { return jar; }
+}
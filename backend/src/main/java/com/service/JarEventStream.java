@@ -0,0 +1,180 @@
+package com.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-user fan-out of committed jar changes to Server-Sent Event streams (GET /api/stream/jars).
+ * <p>
+ * The committing thread only offers the event to each of the user's subscriber queues; a small sender pool
+ * drains them, one drain per subscriber at a time, so a slow client never holds up a transaction or other
+ * clients. A full queue is cleared and replaced by a single "resync" event: the client refetches /api/jars
+ * instead of receiving an unbounded backlog. Every stream starts with "ready" (fetch the list now) and gets a
+ * comment heartbeat so proxies keep it open and dead connections are found.
+ */
+@Component
+public class JarEventStream {
+    static final String READY = "ready";
+    static final String RESYNC = "resync";
+    private static final Object HEARTBEAT = new Object();
+
+    private static final class Subscriber {
+        final Long userId;
+        final SseEmitter emitter;
+        final BlockingQueue<Object> queue;
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean closed = new AtomicBoolean();
+        Subscriber(Long userId, SseEmitter emitter, int capacity) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+
+    private final Map<Long, List<Subscriber>> byUser = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final ExecutorService sender;
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "sse-heartbeat");
+        t.setDaemon(true);
+        return t;
+    });
+    private final int bufferSize;
+    private final int maxPerUser;
+    private final long timeoutMillis;
+    private final Counter sent;
+    private final Counter resyncs;
+
+    public JarEventStream(MeterRegistry registry,
+                          @Value("${finjar.sse.buffer-size:64}") int bufferSize,
+                          @Value("${finjar.sse.max-per-user:5}") int maxPerUser,
+                          @Value("${finjar.sse.timeout-ms:1800000}") long timeoutMillis,
+                          @Value("${finjar.sse.heartbeat-ms:20000}") long heartbeatMillis,
+                          @Value("${finjar.sse.threads:2}") int threads) {
+        this.bufferSize = Math.max(2, bufferSize);
+        this.maxPerUser = Math.max(1, maxPerUser);
+        this.timeoutMillis = timeoutMillis;
+        AtomicInteger n = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread t = new Thread(r, "sse-send-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.sent = Counter.builder("finjar.sse.events").register(registry);
+        this.resyncs = Counter.builder("finjar.sse.resyncs").register(registry);
+        Gauge.builder("finjar.sse.connections", connections, AtomicInteger::get).register(registry);
+        heartbeat.scheduleWithFixedDelay(this::beat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /** Opens a stream for the user; the oldest stream is closed when the user already has max-per-user open. */
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber s = new Subscriber(userId, emitter, bufferSize);
+        emitter.onCompletion(() -> remove(s));
+        emitter.onTimeout(() -> remove(s));
+        emitter.onError(e -> remove(s));
+        connections.incrementAndGet();
+        List<Subscriber> subs = byUser.compute(userId, (k, list) -> {
+            if (list == null) list = new CopyOnWriteArrayList<>();
+            list.add(s);
+            return list;
+        });
+        while (subs.size() > maxPerUser) {
+            Subscriber oldest = subs.get(0);
+            remove(oldest);
+            oldest.emitter.complete();
+        }
+        offer(s, READY);
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onJarChanged(JarChangedEvent event) {
+        List<Subscriber> subs = byUser.get(event.getUserId());
+        if (subs == null) return;
+        for (Subscriber s : subs) offer(s, event);
+    }
+
+    private void offer(Subscriber s, Object event) {
+        if (s.closed.get()) return;
+        if (!s.queue.offer(event)) {
+            // client is not keeping up: drop the backlog, tell it to refetch
+            s.queue.clear();
+            s.queue.offer(RESYNC);
+            resyncs.increment();
+        }
+        if (s.draining.compareAndSet(false, true)) sender.execute(() -> drain(s));
+    }
+
+    private void drain(Subscriber s) {
+        try {
+            Object event;
+            while (!s.closed.get() && (event = s.queue.poll()) != null) {
+                if (event == HEARTBEAT) {
+                    s.emitter.send(SseEmitter.event().comment("hb"));
+                } else if (event instanceof String) {
+                    s.emitter.send(SseEmitter.event().name((String) event).data("{}", MediaType.APPLICATION_JSON));
+                } else {
+                    JarChangedEvent e = (JarChangedEvent) event;
+                    s.emitter.send(SseEmitter.event().name(e.getType()).data(e, MediaType.APPLICATION_JSON));
+                    sent.increment();
+                }
+            }
+        } catch (Exception e) {
+            // IOException from a gone client, IllegalStateException from a completed emitter
+            remove(s);
+            s.emitter.completeWithError(e);
+        } finally {
+            s.draining.set(false);
+        }
+        if (!s.closed.get() && !s.queue.isEmpty() && s.draining.compareAndSet(false, true)) sender.execute(() -> drain(s));
+    }
+
+    private void beat() {
+        for (List<Subscriber> subs : byUser.values()) {
+            for (Subscriber s : subs) {
+                if (s.queue.isEmpty()) offer(s, HEARTBEAT); // a pending drain is traffic enough
+            }
+        }
+    }
+
+    private void remove(Subscriber s) {
+        if (!s.closed.compareAndSet(false, true)) return;
+        connections.decrementAndGet();
+        byUser.computeIfPresent(s.userId, (k, subs) -> {
+            subs.remove(s);
+            return subs.isEmpty() ? null : subs;
+        });
+        s.queue.clear();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        sender.shutdownNow();
+        for (List<Subscriber> subs : byUser.values()) {
+            for (Subscriber s : subs) s.emitter.complete();
+        }
+    }
+}
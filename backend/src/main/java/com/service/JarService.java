@@ -1,60 +1,327 @@
 package com.service;
 
+import com.config.CacheConfig;
+import com.config.ReplicaRouting;
+import com.dto.DepositView;
+import com.dto.JarView;
+import com.dto.LedgerEventView;
 import com.model.*;
 import com.repo.*;
+import com.util.KeysetCursor;
+import com.util.StripedLocks;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class JarService {
     private final JarRepo jarRepo;
     private final DepositRepo depositRepo;
-    public JarService(JarRepo jarRepo, DepositRepo depositRepo) {
-        this.jarRepo = jarRepo; this.depositRepo = depositRepo;
+    private final UserRepo userRepo;
+    private final MonthlyRollupService rollup;
+    private final GoalProjectionService projections;
+    private final DepositLedger ledger;
+    private final ApplicationEventPublisher events;
+    private final ReplicaRouting routing;
+    private final ListingVersions versions;
+    private final Cache jarLists;
+    private final TransactionTemplate tx;
+    private final TransactionTemplate readTx;
+    private final StripedLocks jarWriters = new StripedLocks(256);
+    public JarService(JarRepo jarRepo, DepositRepo depositRepo, UserRepo userRepo, MonthlyRollupService rollup,
+                      GoalProjectionService projections, DepositLedger ledger, ApplicationEventPublisher events,
+                      ReplicaRouting routing, ListingVersions versions, CacheManager cacheManager,
+                      PlatformTransactionManager txManager) {
+        this.jarRepo = jarRepo; this.depositRepo = depositRepo; this.userRepo = userRepo; this.rollup = rollup;
+        this.projections = projections; this.ledger = ledger; this.events = events; this.routing = routing;
+        this.versions = versions;
+        this.jarLists = cacheManager.getCache(CacheConfig.JAR_LISTS);
+        this.tx = new TransactionTemplate(txManager);
+        this.readTx = new TransactionTemplate(txManager);
+        this.readTx.setReadOnly(true);
     }
 
-    public List<JarEntity> list(UserEntity user) { return jarRepo.findByUser(user); }
+    private static final class VersionedJars {
+        final String version;
+        final List<JarView> jars;
+        VersionedJars(String version, List<JarView> jars) { this.version = version; this.jars = jars; }
+    }
+
+    // Monthly rollup rows, projection state and ledger events are written after the jar balance update so they
+    // change under the jar's row lock (see MonthlyRollupService). Deposit writes first queue per jar in this
+    // instance (jarWriters) and only then start their transaction, so same-jar writers wait without holding a pool
+    // connection. Id blocks come from IdBlockGenerator's own pool, so a writer never needs a second connection from
+    // the one it holds, whichever jars the other writers are on. Every mutation publishes a JarChangedEvent,
+    // which listeners (SSE, ETags, read-your-writes) act on only after commit. The read-only listings below may run
+    // on the read replica (ReadReplicaConfig); each first tells ReplicaRouting whose data it reads.
+
+    // Cached per user with the ListingVersions version read before the query, and served only while that version
+    // is current. A list read before a concurrent write committed may still be put after the write's evict; it is
+    // then never served, since the write moved the version on. Mutations below that change a jar row or balance
+    // also evict the user's entry, which only frees it early.
+    public List<JarView> listViews(Long userId) {
+        String version = versions.jarsVersion(userId);
+        VersionedJars cached = jarLists.get(userId, VersionedJars.class);
+        if (cached != null && cached.version.equals(version)) return cached.jars;
+        List<JarView> jars = readTx.execute(s -> {
+            routing.readingFor(userId);
+            return Collections.unmodifiableList(jarRepo.findViewsByUserId(userId));
+        });
+        jarLists.put(userId, new VersionedJars(version, jars));
+        return jars;
+    }
+
+    /** The jar as listings show it: with the projection fields (monthly rate, ETA) from its projection state. */
+    public JarView view(JarEntity jar) {
+        return JarView.from(jar, projections.find(jar.getId()));
+    }
 
     @Transactional
-    public JarEntity create(UserEntity user, String name, Double target, String desc) {
+    @CacheEvict(cacheNames = CacheConfig.JAR_LISTS, key = "#user.id")
+    public JarEntity create(UserEntity user, String name, long targetCents, String desc, LocalDate targetDate) {
         JarEntity j = new JarEntity();
         j.setUser(user);
         j.setName(name);
-        j.setTargetAmount(target);
-        j.setCurrentAmount(0.0);
+        j.setTargetCents(targetCents);
+        j.setCurrentCents(0L);
         j.setDescription(desc);
-        return jarRepo.save(j);
+        j.setTargetDate(targetDate);
+        jarRepo.save(j);
+        events.publishEvent(JarChangedEvent.created(user.getId(), view(j)));
+        return j;
     }
 
+    /**
+     * Updates the user's jar in place (select + dirty-checked update); null when the user has no such jar.
+     * Null arguments leave fields unchanged, except targetDate, which is written (or cleared) when setTargetDate is set.
+     */
     @Transactional
-    public JarEntity update(JarEntity jar, String name, Double target, String desc) {
+    @CacheEvict(cacheNames = CacheConfig.JAR_LISTS, key = "#userId")
+    public JarEntity update(Long jarId, Long userId, String name, Long targetCents, String desc,
+                            boolean setTargetDate, LocalDate targetDate) {
+        JarEntity jar = jarRepo.findByIdAndUserId(jarId, userId).orElse(null);
+        if (jar == null) return null;
         if (name != null) jar.setName(name);
-        if (target != null) jar.setTargetAmount(target);
+        if (targetCents != null) jar.setTargetCents(targetCents);
         if (desc != null) jar.setDescription(desc);
-        return jarRepo.save(jar);
+        if (setTargetDate) jar.setTargetDate(targetDate);
+        events.publishEvent(JarChangedEvent.updated(userId, view(jar)));
+        return jar;
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.JAR_LISTS, key = "#jar.user.id")
     public void delete(JarEntity jar) {
-        // cascade manually deposits first
-        depositRepo.findByJarAndUser(jar, jar.getUser()).forEach(d -> depositRepo.delete(d));
-        jarRepo.delete(jar);
+        // deposits first, in one bulk statement
+        depositRepo.deleteByJarId(jar.getId());
+        rollup.deleteJar(jar.getId());
+        projections.deleteJar(jar.getId());
+        ledger.deleteJar(jar.getId());
+        events.publishEvent(JarChangedEvent.deleted(jar.getUser().getId(), jar.getId()));
+        jarRepo.deleteOwned(jar.getId(), jar.getUser().getId());
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.JAR_LISTS, key = "#user.id")
+    public DepositEntity addDeposit(UserEntity user, JarEntity jar, long amountCents, String description) {
+        return jarWriters.call(jar.getId(), () -> tx.execute(s -> {
+            DepositEntity d = new DepositEntity();
+            d.setUser(user);
+            d.setJar(jar);
+            d.setAmountCents(amountCents);
+            d.setDescription(description);
+            depositRepo.save(d);
+            jarRepo.addToCurrentAmount(jar.getId(), amountCents);
+            balanceChanged(user.getId(), jar.getId(), d, DepositEventEntity.CREATED, amountCents, 1);
+            return d;
+        }));
     }
 
+    /**
+     * Adds a deposit by ids without loading the jar: the balance increment also checks ownership, and the
+     * deposit references the jar and user as proxies. Returns null (nothing written) when the user has no such jar.
+     */
+    @CacheEvict(cacheNames = CacheConfig.JAR_LISTS, key = "#userId")
+    public DepositEntity addDeposit(Long userId, Long jarId, long amountCents, String description) {
+        return jarWriters.call(jarId, () -> tx.execute(s -> {
+            if (jarRepo.addToCurrentAmountOwned(jarId, userId, amountCents) == 0) return null;
+            DepositEntity d = new DepositEntity();
+            d.setUser(userRepo.getReferenceById(userId));
+            d.setJar(jarRepo.getReferenceById(jarId));
+            d.setAmountCents(amountCents);
+            d.setDescription(description);
+            depositRepo.save(d);
+            balanceChanged(userId, jarId, d, DepositEventEntity.CREATED, amountCents, 1);
+            return d;
+        }));
+    }
+
+    /**
+     * Inserts many deposits in one transaction: inserts go out as JDBC batches and each jar's balance
+     * moves once by the summed amount. Jars must already be ownership-checked by the caller.
+     */
+    @CacheEvict(cacheNames = CacheConfig.JAR_LISTS, key = "#user.id")
+    public List<DepositEntity> addDeposits(UserEntity user, Map<Long, JarEntity> jars, List<DepositDraft> drafts) {
+        return jarWriters.call(jars.keySet(), () -> tx.execute(s -> insertDeposits(user, jars, drafts)));
+    }
+
+    private List<DepositEntity> insertDeposits(UserEntity user, Map<Long, JarEntity> jars, List<DepositDraft> drafts) {
+        List<DepositEntity> deps = new ArrayList<>(drafts.size());
+        Map<Long, long[]> deltas = new HashMap<>();
+        Map<Long, Map<Integer, long[]>> months = new HashMap<>(); // jar -> yyyymm -> {cents, count}
+        Map<Long, List<DepositEntity>> byJar = new HashMap<>();
+        for (DepositDraft draft : drafts) {
+            DepositEntity d = new DepositEntity();
+            d.setUser(user);
+            d.setJar(jars.get(draft.getJarId()));
+            d.setAmountCents(draft.getAmountCents());
+            d.setDescription(draft.getDescription());
+            deps.add(d);
+            byJar.computeIfAbsent(draft.getJarId(), k -> new ArrayList<>()).add(d);
+            deltas.computeIfAbsent(draft.getJarId(), k -> new long[1])[0] += draft.getAmountCents();
+            long[] month = months.computeIfAbsent(draft.getJarId(), k -> new HashMap<>())
+                    .computeIfAbsent(MonthlyRollupService.yyyymm(d.getCreatedAt()), k -> new long[2]);
+            month[0] += draft.getAmountCents();
+            month[1]++;
+        }
+        depositRepo.saveAll(deps);
+        depositRepo.flush();
+        for (Map.Entry<Long, long[]> e : deltas.entrySet()) {
+            jarRepo.addToCurrentAmount(e.getKey(), e.getValue()[0]);
+            ledger.appendCreated(user.getId(), e.getKey(), byJar.get(e.getKey()));
+            events.publishEvent(JarChangedEvent.balance(user.getId(), e.getKey(), e.getValue()[0]));
+            for (Map.Entry<Integer, long[]> m : months.get(e.getKey()).entrySet()) {
+                rollup.record(user.getId(), e.getKey(), m.getKey(), m.getValue()[0], m.getValue()[1]);
+                projections.apply(e.getKey(), m.getKey(), m.getValue()[0]);
+            }
+        }
+        return deps;
+    }
+
+    /**
+     * Changes a deposit's amount and/or description; the jar balance moves by the difference atomically.
+     * @throws ConcurrentModificationException when the deposit changed since it was read
+     */
+    @CacheEvict(cacheNames = CacheConfig.JAR_LISTS, key = "#dep.user.id", condition = "#amountCents != null") // description-only edits leave balances alone
+    public DepositEntity updateDeposit(DepositEntity dep, Long amountCents, String description) {
+        return jarWriters.call(dep.getJar().getId(), () -> tx.execute(s -> changeDeposit(dep, amountCents, description)));
+    }
+
+    private DepositEntity changeDeposit(DepositEntity dep, Long amountCents, String description) {
+        if (amountCents != null && amountCents != dep.getAmountCents()) {
+            long old = dep.getAmountCents();
+            if (depositRepo.compareAndSetAmount(dep.getId(), old, amountCents) == 0) {
+                throw new ConcurrentModificationException("Deposit was modified concurrently");
+            }
+            jarRepo.addToCurrentAmount(dep.getJar().getId(), amountCents - old);
+            dep.setAmountCents(amountCents);
+            balanceChanged(dep.getUser().getId(), dep.getJar().getId(), dep, DepositEventEntity.AMENDED, amountCents - old, 0);
+        }
+        if (description != null) {
+            depositRepo.updateDescription(dep.getId(), description); // column-level, never rewrites amount
+            dep.setDescription(description);
+            events.publishEvent(JarChangedEvent.deposits(dep.getUser().getId(), dep.getJar().getId()));
+        }
+        return dep;
+    }
+
+    /** @throws ConcurrentModificationException when the deposit changed or was removed since it was read */
+    @CacheEvict(cacheNames = CacheConfig.JAR_LISTS, key = "#dep.user.id")
+    public void deleteDeposit(DepositEntity dep) {
+        jarWriters.call(dep.getJar().getId(), () -> tx.execute(s -> {
+            if (depositRepo.deleteIfAmount(dep.getId(), dep.getAmountCents()) == 0) {
+                throw new ConcurrentModificationException("Deposit was modified concurrently");
+            }
+            jarRepo.addToCurrentAmount(dep.getJar().getId(), -dep.getAmountCents());
+            balanceChanged(dep.getUser().getId(), dep.getJar().getId(), dep, DepositEventEntity.DELETED, -dep.getAmountCents(), -1);
+            return null;
+        }));
+    }
+
+    // Derived state for one single-deposit change; the ledger records the deposit's amount after the change
+    private void balanceChanged(Long userId, Long jarId, DepositEntity dep, String type, long deltaCents, long deltaCount) {
+        rollup.record(userId, jarId, dep.getCreatedAt(), deltaCents, deltaCount);
+        projections.apply(jarId, dep.getCreatedAt(), deltaCents);
+        ledger.append(userId, jarId, dep.getId(), type, deltaCents, DepositEventEntity.DELETED.equals(type) ? 0L : dep.getAmountCents());
+        events.publishEvent(JarChangedEvent.balance(userId, jarId, deltaCents));
+    }
+
+    /**
+     * Resets the balance to the ledger's (latest snapshot + events since) under the jar's row lock and returns the
+     * refreshed jar. Cost is O(events since the last snapshot), independent of the number of deposits.
+     */
     @Transactional
-    public DepositEntity addDeposit(UserEntity user, JarEntity jar, Double amount, String description) {
-        DepositEntity d = new DepositEntity();
-        d.setUser(user);
-        d.setJar(jar);
-        d.setAmount(amount);
-        d.setDescription(description);
-        depositRepo.save(d);
-        jar.setCurrentAmount(jar.getCurrentAmount() + amount);
-        jarRepo.save(jar);
-        return d;
-    }
-
-    public List<DepositEntity> listDeposits(UserEntity user) { return depositRepo.findByUser(user); }
-    public List<DepositEntity> listDepositsForJar(UserEntity user, JarEntity jar) { return depositRepo.findByJarAndUser(jar, user); }
+    @CacheEvict(cacheNames = CacheConfig.JAR_LISTS, key = "#jar.user.id")
+    public JarEntity recalc(JarEntity jar) {
+        jarRepo.lockById(jar.getId());
+        jarRepo.setCurrentAmount(jar.getId(), ledger.balance(jar.getId()));
+        JarEntity fresh = jarRepo.findById(jar.getId()).orElse(jar);
+        events.publishEvent(JarChangedEvent.updated(jar.getUser().getId(), view(fresh)));
+        return fresh;
+    }
+
+    /** A page of the jar's ledger in sequence order, after {@code afterSeq}. */
+    @Transactional(readOnly = true)
+    public List<LedgerEventView> ledgerEvents(Long userId, Long jarId, long afterSeq, int limit) {
+        routing.readingFor(userId);
+        List<LedgerEventView> views = new ArrayList<>();
+        for (DepositEventEntity e : ledger.events(jarId, afterSeq, limit)) views.add(LedgerEventView.from(e));
+        return views;
+    }
+
+    /** Ledger balance at the end of {@code asOf} (UTC), or the current ledger balance when asOf is null. */
+    @Transactional(readOnly = true)
+    public long ledgerBalance(Long userId, Long jarId, LocalDate asOf) {
+        routing.readingFor(userId);
+        if (asOf == null) return ledger.balance(jarId);
+        return ledger.balanceBefore(jarId, asOf.plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC));
+    }
+
+    @Transactional(readOnly = true)
+    public List<DepositView> listDepositViews(Long userId) {
+        routing.readingFor(userId);
+        return depositRepo.findViewsByUserId(userId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<DepositView> listDepositViewsForJar(Long userId, Long jarId) {
+        routing.readingFor(userId);
+        return depositRepo.findViewsByJarIdAndUserId(jarId, userId);
+    }
+
+    /**
+     * Keyset page of the user's deposits (optionally one jar), newest first.
+     * Fetches limit + 1 rows to know whether a next page exists; cost is independent of history length.
+     */
+    @Transactional(readOnly = true)
+    public DepositPage pageDeposits(Long userId, Long jarId, String cursor, int limit) {
+        routing.readingFor(userId);
+        KeysetCursor after = cursor == null ? null : KeysetCursor.decode(cursor);
+        PageRequest page = PageRequest.of(0, limit + 1);
+        List<DepositView> rows;
+        if (jarId == null) {
+            rows = after == null ? depositRepo.pageByUser(userId, page)
+                    : depositRepo.pageByUserAfter(userId, after.getCreatedAt(), after.getId(), page);
+        } else {
+            rows = after == null ? depositRepo.pageByJar(jarId, userId, page)
+                    : depositRepo.pageByJarAfter(jarId, userId, after.getCreatedAt(), after.getId(), page);
+        }
+        if (rows.size() <= limit) return new DepositPage(rows, null);
+        List<DepositView> items = rows.subList(0, limit);
+        DepositView last = items.get(limit - 1);
+        return new DepositPage(items, new KeysetCursor(last.createdInstant(), last.getId()).encode());
+    }
 }
@@ -0,0 +1,133 @@
+package com.service;
+
+import com.repo.UserRepo;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One-shot bulk upgrade of legacy password hashes (opt-in: finjar.auth.legacy-migration.enabled=true).
+ * The plaintext is not available, so each legacy hash is wrapped: stored = "{legacy}" + bcrypt(legacyHash).
+ * AuthService verifies wrapped hashes through BCrypt and swaps them for a plain BCrypt hash on the next login.
+ * Rows are read in id order and upgraded in parallel chunks; progress is published as
+ * finjar.auth.legacy.migration.{found,migrated,skipped,running}.
+ */
+@Component
+public class LegacyHashMigration {
+    private static final Logger log = LoggerFactory.getLogger(LegacyHashMigration.class);
+
+    private final UserRepo userRepo;
+    private final PasswordHasher hasher;
+    private final LegacyHashUpgrader upgrader;
+    private final TransactionTemplate tx;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final int threads;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong found = new AtomicLong();
+    private final AtomicLong migrated = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+
+    public LegacyHashMigration(UserRepo userRepo, PasswordHasher hasher, LegacyHashUpgrader upgrader,
+                               PlatformTransactionManager txManager, MeterRegistry registry,
+                               @Value("${finjar.auth.legacy-migration.enabled:false}") boolean enabled,
+                               @Value("${finjar.auth.legacy-migration.chunk-size:200}") int chunkSize,
+                               @Value("${finjar.auth.legacy-migration.threads:2}") int threads) {
+        this.userRepo = userRepo;
+        this.hasher = hasher;
+        this.upgrader = upgrader;
+        this.tx = new TransactionTemplate(txManager);
+        this.enabled = enabled;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.threads = Math.max(1, threads);
+        Gauge.builder("finjar.auth.legacy.migration.found", found, AtomicLong::get).register(registry);
+        Gauge.builder("finjar.auth.legacy.migration.migrated", migrated, AtomicLong::get).register(registry);
+        Gauge.builder("finjar.auth.legacy.migration.skipped", skipped, AtomicLong::get).register(registry);
+        Gauge.builder("finjar.auth.legacy.migration.running", running, r -> r.get() ? 1 : 0).register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startIfEnabled() {
+        if (!enabled) return;
+        Thread t = new Thread(this::run, "legacy-hash-migration");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /** Runs the migration to completion on the calling thread; returns false if a run is already in progress. */
+    public boolean run() {
+        if (!running.compareAndSet(false, true)) return false;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        Semaphore inFlight = new Semaphore(threads * 2); // bounds chunks read ahead of the workers
+        long start = System.currentTimeMillis();
+        try {
+            long afterId = 0L;
+            while (true) {
+                List<Object[]> rows = userRepo.findLegacyHashesAfter(afterId, "$2%", AuthService.LEGACY_WRAPPED_PREFIX + "%", PageRequest.of(0, chunkSize));
+                if (rows.isEmpty()) break;
+                afterId = (Long) rows.get(rows.size() - 1)[0];
+                found.addAndGet(rows.size());
+                inFlight.acquire();
+                pool.execute(() -> {
+                    try {
+                        migrateChunk(rows);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+            pool.shutdown();
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            log.info("Legacy hash migration done: {} found, {} migrated, {} skipped in {} ms",
+                    found.get(), migrated.get(), skipped.get(), System.currentTimeMillis() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Legacy hash migration interrupted after {} migrated", migrated.get());
+        } catch (RuntimeException e) {
+            log.warn("Legacy hash migration failed after {} migrated: {}", migrated.get(), e.toString());
+        } finally {
+            pool.shutdownNow();
+            running.set(false);
+        }
+        return true;
+    }
+
+    private void migrateChunk(List<Object[]> rows) {
+        String[] wrapped = new String[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            Long id = (Long) rows.get(i)[0];
+            // a queued login upgrade produces a plain BCrypt hash; leave those users to it
+            wrapped[i] = upgrader.isPending(id) ? null : AuthService.LEGACY_WRAPPED_PREFIX + hasher.encodeInline((String) rows.get(i)[1]);
+        }
+        try {
+            Integer applied = tx.execute(status -> {
+                int n = 0;
+                for (int i = 0; i < rows.size(); i++) {
+                    if (wrapped[i] != null) n += userRepo.replacePasswordHash((Long) rows.get(i)[0], (String) rows.get(i)[1], wrapped[i]);
+                }
+                return n;
+            });
+            int n = applied == null ? 0 : applied;
+            migrated.addAndGet(n);
+            skipped.addAndGet(rows.size() - n);
+        } catch (RuntimeException e) {
+            log.warn("Legacy hash migration chunk of {} failed: {}", rows.size(), e.toString());
+        }
+    }
+}
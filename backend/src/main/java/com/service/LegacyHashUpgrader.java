@@ -0,0 +1,113 @@
+package com.service;
+
+import com.repo.UserRepo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Replaces legacy password hashes with BCrypt after a successful login, off the request path. AuthService computes
+ * the BCrypt hash on the PasswordHasher pool and queues only that hash, never the password. Upgrades are queued per
+ * user id (a user already queued is not queued again) and drained by one background thread in batches: all
+ * replacements in one transaction, each guarded by the hash it replaces. The queue is bounded; a dropped upgrade
+ * simply happens on a later login.
+ */
+@Component
+public class LegacyHashUpgrader {
+    private static final Logger log = LoggerFactory.getLogger(LegacyHashUpgrader.class);
+
+    private static final class Pending {
+        final String expectedHash;
+        final String newHash;
+        Pending(String expectedHash, String newHash) { this.expectedHash = expectedHash; this.newHash = newHash; }
+    }
+
+    private final UserRepo userRepo;
+    private final TransactionTemplate tx;
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "legacy-hash-upgrade");
+        t.setDaemon(true);
+        return t;
+    });
+    private final int maxPending;
+    private final int batchSize;
+    private final long delayMillis;
+    private final Counter upgraded;
+
+    public LegacyHashUpgrader(UserRepo userRepo, PlatformTransactionManager txManager, MeterRegistry registry,
+                              @Value("${finjar.auth.legacy-upgrade.max-pending:10000}") int maxPending,
+                              @Value("${finjar.auth.legacy-upgrade.batch-size:50}") int batchSize,
+                              @Value("${finjar.auth.legacy-upgrade.delay-ms:200}") long delayMillis) {
+        this.userRepo = userRepo;
+        this.tx = new TransactionTemplate(txManager);
+        this.maxPending = maxPending;
+        this.batchSize = Math.max(1, batchSize);
+        this.delayMillis = delayMillis;
+        this.upgraded = Counter.builder("finjar.auth.legacy.upgraded").register(registry);
+        Gauge.builder("finjar.auth.legacy.pending", pending, Map::size).register(registry);
+    }
+
+    /** Queues replacing the user's current (legacy) hash by a BCrypt one; false if already queued or the queue is full. */
+    public boolean enqueue(Long userId, String currentHash, String bcryptHash) {
+        if (pending.size() >= maxPending) return false;
+        if (pending.putIfAbsent(userId, new Pending(currentHash, bcryptHash)) != null) return false;
+        scheduleDrain();
+        return true;
+    }
+
+    public boolean isPending(Long userId) {
+        return pending.containsKey(userId);
+    }
+
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) worker.schedule(this::drain, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void drain() {
+        drainScheduled.set(false);
+        // entries stay in the map until applied, so a login during the drain cannot queue the same user twice
+        List<Long> ids = new ArrayList<>(batchSize);
+        List<Pending> batch = new ArrayList<>(batchSize);
+        for (Map.Entry<Long, Pending> e : pending.entrySet()) {
+            if (ids.size() == batchSize) break;
+            ids.add(e.getKey());
+            batch.add(e.getValue());
+        }
+        try {
+            Integer applied = tx.execute(status -> {
+                int n = 0;
+                for (int i = 0; i < ids.size(); i++) n += userRepo.replacePasswordHash(ids.get(i), batch.get(i).expectedHash, batch.get(i).newHash);
+                return n;
+            });
+            upgraded.increment(applied == null ? 0 : applied);
+        } catch (RuntimeException e) {
+            log.warn("Legacy hash upgrade batch of {} failed: {}", ids.size(), e.toString()); // retried on later logins
+        } finally {
+            for (int i = 0; i < ids.size(); i++) pending.remove(ids.get(i), batch.get(i));
+        }
+        if (!pending.isEmpty()) scheduleDrain();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdown();
+    }
+}
@@ -0,0 +1,100 @@
+package com.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Strong ETags for GET /api/jars (per user) and GET /api/deposits/jar/{id} (per jar), checked in memory so a
+ * matching If-None-Match is answered 304 before any query or serialization.
+ * <p>
+ * Versions are stamps from one process-wide counter, set after commit by every JarChangedEvent (so a reader can
+ * pair an old stamp with new data, never the reverse). A key missing from the bounded tables gets a fresh,
+ * never-issued stamp, and tags carry a per-boot id, so eviction or a restart costs one full response, never a
+ * stale 304. Like the jar-list cache (which is checked against jarsVersion), versions are per instance. The
+ * jar-list tag also carries the UTC date, because its projection fields (etaDate) move with the calendar.
+ */
+@Component
+public class ListingVersions {
+
+    private static final class Stamp {
+        final Long ownerId;
+        final long value;
+        Stamp(Long ownerId, long value) { this.ownerId = ownerId; this.value = value; }
+    }
+
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36) + Integer.toString(ThreadLocalRandom.current().nextInt(1296), 36);
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicLong epoch = new AtomicLong();
+    private final Cache<Long, Long> users;
+    private final Cache<Long, Stamp> jars;
+
+    public ListingVersions(@Value("${finjar.etag.max-keys:100000}") long maxKeys) {
+        this.users = Caffeine.newBuilder().maximumSize(maxKeys).build();
+        this.jars = Caffeine.newBuilder().maximumSize(maxKeys).build();
+    }
+
+    public String jarsTag(Long userId, boolean flat) {
+        return quoted(jarsVersion(userId), flat);
+    }
+
+    /**
+     * Current version of the user's jar list, changing whenever its tag does. JarService caches the list with the
+     * version read before the query and serves the entry only while that version is still current.
+     */
+    public String jarsVersion(Long userId) {
+        long v = users.get(userId, k -> clock.incrementAndGet());
+        return epoch.get() + "-u" + v + "-" + LocalDate.now(ZoneOffset.UTC).toString().replace("-", "");
+    }
+
+    /** Tag for a jar's deposit listing; the caller must already have checked that the user owns the jar. */
+    public String depositsTag(Long userId, Long jarId, boolean flat) {
+        Stamp s = jars.asMap().compute(jarId, (k, old) -> old != null && old.ownerId.equals(userId) ? old : new Stamp(userId, clock.incrementAndGet()));
+        return tag("j" + s.value, flat);
+    }
+
+    /** True when If-None-Match names the current tag of a deposit listing this user was served; no ownership query needed. */
+    public boolean depositsNotModified(Long userId, Long jarId, boolean flat, String ifNoneMatch) {
+        if (ifNoneMatch == null) return false;
+        Stamp s = jars.getIfPresent(jarId);
+        return s != null && s.ownerId.equals(userId) && matches(ifNoneMatch, tag("j" + s.value, flat));
+    }
+
+    /** Makes every tag issued so far stale (for changes made outside JarService, e.g. backfills). */
+    public void invalidateAll() {
+        epoch.incrementAndGet();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onJarChanged(JarChangedEvent event) {
+        users.put(event.getUserId(), clock.incrementAndGet());
+        if (event.getJarId() != null) jars.put(event.getJarId(), new Stamp(event.getUserId(), clock.incrementAndGet()));
+    }
+
+    /** If-None-Match semantics: a comma-separated list or "*"; weak validators compare by their opaque part. */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String c = candidate.trim();
+            if (c.startsWith("W/")) c = c.substring(2);
+            if (c.equals("*") || c.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    private String tag(String version, boolean flat) {
+        return quoted(epoch.get() + "-" + version, flat);
+    }
+
+    private String quoted(String version, boolean flat) {
+        return "\"" + bootId + "." + version + (flat ? "-f" : "-e") + "\"";
+    }
+}
@@ -0,0 +1,182 @@
+package com.service;
+
+import com.model.MaintenanceMarkerEntity;
+import com.repo.DepositEventRepo;
+import com.repo.DepositRepo;
+import com.repo.JarMonthlyTotalRepo;
+import com.repo.JarRepo;
+import com.repo.MaintenanceMarkerRepo;
+import com.util.GoalProjection;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps jar_monthly_totals (deposit sum and count per jar and UTC month) in step with the deposits table.
+ * JarService calls {@link #record} in the same transaction as each deposit write, after the jar balance
+ * update, so rollup changes always happen under the jar's row lock. Checks and rebuilds take that lock first
+ * and therefore never see a half-applied write.
+ * <p>
+ * On startup, before reports switch to the rollup, the jars with ledger events since the last completed check
+ * (maintenance_markers) are verified and repaired. Every rollup change comes with a ledger event, so the other jars
+ * cannot have drifted through JarService. With no check on record, every jar is verified once.
+ * finjar.rollup.check-cron repeats the full check, which also covers deposits changed outside the application.
+ */
+@Service
+public class MonthlyRollupService {
+    private static final Logger log = LoggerFactory.getLogger(MonthlyRollupService.class);
+    static final String CHECKED_MARKER = "rollup-checked";
+    // Events of transactions still open when a check started may carry an earlier created_at than its marker
+    private static final Duration IN_FLIGHT = Duration.ofMinutes(5);
+
+    private final JarMonthlyTotalRepo rollupRepo;
+    private final DepositRepo depositRepo;
+    private final JarRepo jarRepo;
+    private final DepositEventRepo eventRepo;
+    private final MaintenanceMarkerRepo markerRepo;
+    private final TransactionTemplate tx;
+    private final boolean verifyOnStart;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong mismatches = new AtomicLong();
+    private volatile boolean ready;
+
+    public MonthlyRollupService(JarMonthlyTotalRepo rollupRepo, DepositRepo depositRepo, JarRepo jarRepo,
+                                DepositEventRepo eventRepo, MaintenanceMarkerRepo markerRepo,
+                                PlatformTransactionManager txManager, MeterRegistry registry,
+                                @Value("${finjar.rollup.verify-on-start:true}") boolean verifyOnStart) {
+        this.rollupRepo = rollupRepo;
+        this.depositRepo = depositRepo;
+        this.jarRepo = jarRepo;
+        this.eventRepo = eventRepo;
+        this.markerRepo = markerRepo;
+        this.tx = new TransactionTemplate(txManager);
+        this.verifyOnStart = verifyOnStart;
+        Gauge.builder("finjar.rollup.mismatches", mismatches, AtomicLong::get).register(registry);
+        Gauge.builder("finjar.rollup.ready", this, s -> s.ready ? 1 : 0).register(registry);
+    }
+
+    public static int yyyymm(Instant at) {
+        return GoalProjection.yyyymm(at);
+    }
+
+    /** True once the startup check has completed; reports fall back to scans until then. */
+    public boolean isReady() { return ready; }
+
+    /** Applies a deposit change to its month row; must run inside the caller's transaction. */
+    public void record(Long userId, Long jarId, Instant createdAt, long deltaCents, long deltaCount) {
+        record(userId, jarId, yyyymm(createdAt), deltaCents, deltaCount);
+    }
+
+    public void record(Long userId, Long jarId, int yyyymm, long deltaCents, long deltaCount) {
+        if (deltaCents == 0 && deltaCount == 0) return;
+        rollupRepo.upsert(userId, jarId, yyyymm, deltaCents, deltaCount);
+    }
+
+    public void deleteJar(Long jarId) {
+        rollupRepo.deleteByJarId(jarId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyOnStart() {
+        if (!verifyOnStart) {
+            ready = true;
+            return;
+        }
+        Thread t = new Thread(() -> {
+            if (checkChanged() >= 0) ready = true;
+        }, "rollup-verify");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    @Scheduled(cron = "${finjar.rollup.check-cron:-}")
+    public void scheduledCheck() {
+        checkAll(true);
+    }
+
+    /**
+     * Compares every jar's rollup rows with its grouped deposits; with repair, mismatching jars are rebuilt.
+     * Returns the number of mismatching jars, or -1 if a check was already running or the run failed.
+     */
+    public long checkAll(boolean repair) {
+        return check(null, repair);
+    }
+
+    /**
+     * Checks and repairs the jars with ledger events since the last completed check, or every jar when none is on
+     * record. Returns as {@link #checkAll}.
+     */
+    public long checkChanged() {
+        Instant since = markerRepo.findById(CHECKED_MARKER).map(m -> m.getMarkedAt().minus(IN_FLIGHT)).orElse(null);
+        return check(since, true);
+    }
+
+    // since == null: every jar. A repairing run that completes becomes the new marker.
+    private long check(Instant since, boolean repair) {
+        if (!running.compareAndSet(false, true)) return -1;
+        Instant started = Instant.now();
+        try {
+            List<Long> jarIds = since == null ? jarRepo.findAllIds() : eventRepo.findJarIdsChangedSince(since);
+            long bad = 0;
+            for (Long jarId : jarIds) {
+                if (checkJar(jarId, repair)) bad++;
+            }
+            mismatches.set(bad);
+            if (repair) markerRepo.save(new MaintenanceMarkerEntity(CHECKED_MARKER, started));
+            long ms = Duration.between(started, Instant.now()).toMillis();
+            String scope = since == null ? "all jars" : "jars changed since " + since;
+            if (bad > 0) log.warn("Monthly rollup: {} of {} jar(s) out of step{} ({}) in {} ms", bad, jarIds.size(), repair ? ", rebuilt" : "", scope, ms);
+            else log.info("Monthly rollup consistent: {} jar(s) ({}) in {} ms", jarIds.size(), scope, ms);
+            return bad;
+        } catch (RuntimeException e) {
+            log.warn("Monthly rollup check failed: {}", e.toString());
+            return -1;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /** Returns true when the jar's rollup did not match its deposits (and was rebuilt if repair is set). */
+    public boolean checkJar(Long jarId, boolean repair) {
+        Boolean mismatch = tx.execute(status -> {
+            if (jarRepo.lockById(jarId) == null) return false; // deleted meanwhile
+            Map<Integer, long[]> expected = new HashMap<>();
+            for (Object[] row : depositRepo.sumByMonthForJar(jarId)) {
+                int ym = ((Number) row[0]).intValue() * 100 + ((Number) row[1]).intValue();
+                expected.put(ym, new long[] { toLong(row[2]), toLong(row[3]) });
+            }
+            List<Object[]> actual = rollupRepo.monthsForJar(jarId);
+            boolean same = actual.size() == expected.size();
+            for (int i = 0; same && i < actual.size(); i++) {
+                long[] e = expected.get(((Number) actual.get(i)[0]).intValue());
+                same = e != null && e[0] == toLong(actual.get(i)[1]) && e[1] == toLong(actual.get(i)[2]);
+            }
+            if (!same && repair) {
+                rollupRepo.deleteByJarId(jarId);
+                rollupRepo.rebuildJar(jarId);
+            }
+            return !same;
+        });
+        return Boolean.TRUE.equals(mismatch);
+    }
+
+    private static long toLong(Object o) {
+        return o == null ? 0L : ((Number) o).longValue();
+    }
+}
@@ -0,0 +1,82 @@
+package com.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt on a fixed-size pool with a bounded queue so password hashing never occupies request threads.
+ * When the queue is full the returned future fails with RejectedExecutionException (mapped to 429 by the API).
+ * Metrics: finjar.auth.hash (timer, op=encode|matches), finjar.auth.hash.queue, finjar.auth.hash.active,
+ * finjar.auth.hash.rejected.
+ */
+@Component
+public class PasswordHasher {
+    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+    private final ThreadPoolExecutor executor;
+    private final Timer encodeTimer;
+    private final Timer matchTimer;
+    private final Counter rejected;
+
+    public PasswordHasher(MeterRegistry registry,
+                          @Value("${finjar.auth.hash-threads:0}") int threads,
+                          @Value("${finjar.auth.hash-queue:64}") int queueCapacity) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread t = new Thread(r, "bcrypt-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.encodeTimer = Timer.builder("finjar.auth.hash").tag("op", "encode").publishPercentiles(0.5, 0.99).register(registry);
+        this.matchTimer = Timer.builder("finjar.auth.hash").tag("op", "matches").publishPercentiles(0.5, 0.99).register(registry);
+        this.rejected = Counter.builder("finjar.auth.hash.rejected").register(registry);
+        Gauge.builder("finjar.auth.hash.queue", executor, e -> e.getQueue().size()).register(registry);
+        Gauge.builder("finjar.auth.hash.active", executor, ThreadPoolExecutor::getActiveCount).register(registry);
+    }
+
+    public CompletableFuture<String> encode(String raw) {
+        return submit(() -> encodeTimer.record(() -> encoder.encode(raw)));
+    }
+
+    /** Hashes on the caller's thread; for background jobs that are already off the request path. */
+    public String encodeInline(String raw) {
+        return encodeTimer.record(() -> encoder.encode(raw));
+    }
+
+    public CompletableFuture<Boolean> matches(String raw, String hash) {
+        return submit(() -> matchTimer.record(() -> encoder.matches(raw, hash)));
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> work) {
+        try {
+            return CompletableFuture.supplyAsync(work, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            CompletableFuture<T> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
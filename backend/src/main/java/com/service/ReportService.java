@@ -0,0 +1,101 @@
+package com.service;
+
+import com.config.ReplicaRouting;
+import com.repo.DepositRepo;
+import com.repo.JarMonthlyTotalRepo;
+import com.util.Money;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Savings report aggregates computed in the database (GROUP BY), never from loaded deposit rows.
+ * Dates are UTC; {@code from}/{@code to} are inclusive days, either may be null for an open range.
+ * Ranges made of whole months are answered from the jar_monthly_totals rollup (O(months) index reads);
+ * other ranges, and any request before the rollup has been verified at startup, scan the deposits.
+ */
+@Service
+public class ReportService {
+    private static final Instant MIN = Instant.EPOCH;
+    private static final Instant MAX = LocalDate.of(9999, 1, 1).atStartOfDay().toInstant(ZoneOffset.UTC);
+
+    private final DepositRepo depositRepo;
+    private final JarMonthlyTotalRepo rollupRepo;
+    private final MonthlyRollupService rollup;
+    private final ReplicaRouting routing;
+    public ReportService(DepositRepo depositRepo, JarMonthlyTotalRepo rollupRepo, MonthlyRollupService rollup, ReplicaRouting routing) {
+        this.depositRepo = depositRepo; this.rollupRepo = rollupRepo; this.rollup = rollup; this.routing = routing;
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String,Object> summary(Long userId, LocalDate from, LocalDate to, Long jarId) {
+        routing.readingFor(userId);
+        boolean wholeMonths = (from == null || from.getDayOfMonth() == 1)
+                && (to == null || to.getDayOfMonth() == to.lengthOfMonth());
+        List<Object[]> byJar;
+        List<Object[]> byMonth;
+        if (wholeMonths && rollup.isReady()) {
+            int fromYm = from == null ? 0 : from.getYear() * 100 + from.getMonthValue();
+            int toYm = to == null ? 999912 : to.getYear() * 100 + to.getMonthValue();
+            byJar = rollupRepo.sumByJar(userId, fromYm, toYm, jarId);
+            byMonth = new ArrayList<>();
+            for (Object[] row : rollupRepo.sumByMonth(userId, fromYm, toYm, jarId)) {
+                int ym = ((Number) row[0]).intValue();
+                byMonth.add(new Object[] { ym / 100, ym % 100, row[1], row[2] });
+            }
+        } else {
+            Instant start = from == null ? MIN : from.atStartOfDay().toInstant(ZoneOffset.UTC);
+            Instant end = to == null ? MAX : to.plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+            byJar = depositRepo.sumByJar(userId, start, end, jarId);
+            byMonth = depositRepo.sumByMonth(userId, start, end, jarId);
+        }
+
+        long totalCents = 0;
+        long count = 0;
+        List<Map<String,Object>> jars = new ArrayList<>();
+        for (Object[] row : byJar) {
+            long cents = toLong(row[1]);
+            long deposits = ((Number) row[2]).longValue();
+            totalCents += cents;
+            count += deposits;
+            Map<String,Object> m = new HashMap<>();
+            m.put("jarId", row[0]);
+            m.put("amount", Money.toDecimal(cents));
+            m.put("deposits", deposits);
+            jars.add(m);
+        }
+
+        List<Map<String,Object>> months = new ArrayList<>();
+        for (Object[] row : byMonth) {
+            Map<String,Object> m = new HashMap<>();
+            m.put("month", String.format("%04d-%02d", ((Number) row[0]).intValue(), ((Number) row[1]).intValue()));
+            m.put("amount", Money.toDecimal(toLong(row[2])));
+            m.put("deposits", ((Number) row[3]).longValue());
+            months.add(m);
+        }
+
+        Map<String,Object> totals = new HashMap<>();
+        totals.put("amount", Money.toDecimal(totalCents));
+        totals.put("deposits", count);
+
+        Map<String,Object> summary = new HashMap<>();
+        summary.put("from", from == null ? null : from.toString());
+        summary.put("to", to == null ? null : to.toString());
+        summary.put("jarId", jarId);
+        summary.put("totals", totals);
+        summary.put("jars", jars);
+        summary.put("months", months);
+        return summary;
+    }
+
+    private static long toLong(Object o) {
+        return o == null ? 0L : ((Number) o).longValue();
+    }
+}
@@ -0,0 +1,47 @@
+package com.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-use, short-lived tickets for GET /api/stream/jars. EventSource cannot send an Authorization header, and a
+ * JWT in the query string ends up in access and proxy logs. An authenticated POST therefore issues a random ticket
+ * for the caller, and opening the stream redeems it. A ticket is gone after its first use or after
+ * finjar.sse.ticket-ttl-ms, whichever comes first. Tickets are per instance, like the streams themselves.
+ */
+@Component
+public class StreamTickets {
+    private final SecureRandom random = new SecureRandom();
+    private final Cache<String, Long> tickets;
+    private final long ttlMillis;
+
+    public StreamTickets(@Value("${finjar.sse.ticket-ttl-ms:30000}") long ttlMillis,
+                         @Value("${finjar.sse.ticket-max-outstanding:100000}") long maxOutstanding) {
+        this.ttlMillis = ttlMillis;
+        this.tickets = Caffeine.newBuilder()
+                .expireAfterWrite(ttlMillis, TimeUnit.MILLISECONDS)
+                .maximumSize(maxOutstanding)
+                .build();
+    }
+
+    public String issue(Long userId) {
+        byte[] raw = new byte[24];
+        random.nextBytes(raw);
+        String ticket = Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+        tickets.put(ticket, userId);
+        return ticket;
+    }
+
+    /** The user the ticket was issued to, or null when it is unknown, expired or already used. */
+    public Long redeem(String ticket) {
+        return ticket == null ? null : tickets.asMap().remove(ticket);
+    }
+
+    public long getTtlMillis() { return ttlMillis; }
+}
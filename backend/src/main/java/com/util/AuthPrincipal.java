@@ -0,0 +1,21 @@
+package com.util;
+
+/**
+ * Caller identity built from verified JWT claims only (no DB round trip).
+ * Handlers that need a managed user should use {@code userRepo.getReferenceById(id)}.
+ */
+public final class AuthPrincipal {
+    private final Long id;
+    private final String email;
+    private final String name;
+
+    public AuthPrincipal(Long id, String email, String name) {
+        this.id = id;
+        this.email = email;
+        this.name = name;
+    }
+
+    public Long getId() { return id; }
+    public String getEmail() { return email; }
+    public String getName() { return name; }
+}
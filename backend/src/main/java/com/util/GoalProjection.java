@@ -0,0 +1,73 @@
+package com.util;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Savings-rate projection from monthly deposit totals. The rate is an exponentially weighted moving average
+ * of completed UTC months (bias-corrected, so young jars are not dragged towards zero); months are yyyymm ints.
+ */
+public final class GoalProjection {
+    /** Weight of the most recent completed month. */
+    public static final double ALPHA = 0.3;
+    private static final double DAYS_PER_MONTH = 365.25 / 12;
+
+    private GoalProjection() { }
+
+    public static int yyyymm(Instant at) {
+        ZonedDateTime t = at.atZone(ZoneOffset.UTC);
+        return t.getYear() * 100 + t.getMonthValue();
+    }
+
+    public static int yyyymm(LocalDate d) {
+        return d.getYear() * 100 + d.getMonthValue();
+    }
+
+    public static int monthsBetween(int fromYm, int toYm) {
+        return (toYm / 100 - fromYm / 100) * 12 + (toYm % 100 - fromYm % 100);
+    }
+
+    /** EWMA after folding the open month and {@code months - 1} empty months into it. */
+    public static double fold(double ewma, long openCents, int months) {
+        if (months <= 0) return ewma;
+        return (ALPHA * openCents + (1 - ALPHA) * ewma) * Math.pow(1 - ALPHA, months - 1);
+    }
+
+    /** Weight of a month that is {@code age} (>= 1) completed months old in the EWMA. */
+    public static double weight(int age) {
+        return ALPHA * Math.pow(1 - ALPHA, age - 1);
+    }
+
+    /**
+     * Smoothed monthly rate in cents as of {@code nowYm}, or null without any deposit history. Before the first
+     * month completes the month-to-date total stands in for the rate.
+     */
+    public static Double monthlyRate(Integer firstYm, Integer openYm, Long openCents, Double ewma, int nowYm) {
+        if (firstYm == null || openYm == null || openCents == null || ewma == null) return null;
+        int completed = monthsBetween(firstYm, nowYm);
+        if (completed <= 0) return (double) openCents;
+        double e = nowYm > openYm ? fold(ewma, openCents, monthsBetween(openYm, nowYm)) : ewma;
+        return e / (1 - Math.pow(1 - ALPHA, completed));
+    }
+
+    /** Date the target is reached at the given monthly rate; null when already reached or the rate is not positive. */
+    public static LocalDate eta(long remainingCents, Double monthlyRateCents, LocalDate today) {
+        if (remainingCents <= 0 || monthlyRateCents == null || monthlyRateCents <= 0) return null;
+        double days = Math.ceil(remainingCents / monthlyRateCents * DAYS_PER_MONTH);
+        if (days > 365L * 200) return null; // effectively never
+        return today.plusDays((long) days);
+    }
+
+    /** Cents per month still needed to reach the target by {@code targetDate}; null without a target date. */
+    public static Long requiredMonthly(long remainingCents, LocalDate targetDate, LocalDate today) {
+        if (targetDate == null) return null;
+        if (remainingCents <= 0) return 0L;
+        long days = ChronoUnit.DAYS.between(today, targetDate);
+        if (days <= 0) return remainingCents;
+        double months = Math.max(1.0, days / DAYS_PER_MONTH);
+        return (long) Math.ceil(remainingCents / months);
+    }
+}
@@ -1,21 +1,73 @@
 package com.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 public class JwtUtil {
+    private static final int DEFAULT_CACHE_SIZE = 10_000;
+
     private final SecretKey secretKey;
     private final long expirationMillis;
+    // JwtParser is immutable and thread-safe once built
+    private final JwtParser parser;
+    // Verified tokens keyed by SHA-256 of the token; each entry expires at its token's exp, and beyond
+    // maxCacheSize live tokens the least useful entries are evicted.
+    private final Cache<String, Verified> verified;
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private static final class Verified {
+        final Jws<Claims> jws;
+        final long expiresAtMillis;
+        Verified(Jws<Claims> jws, long expiresAtMillis) { this.jws = jws; this.expiresAtMillis = expiresAtMillis; }
+    }
 
     public JwtUtil(String secret, long expirationMillis) {
+        this(secret, expirationMillis, DEFAULT_CACHE_SIZE);
+    }
+
+    public JwtUtil(String secret, long expirationMillis, int maxCacheSize) {
         this.secretKey = Keys.hmacShaKeyFor(secret.getBytes());
         this.expirationMillis = expirationMillis;
+        this.parser = Jwts.parserBuilder().setSigningKey(secretKey).build();
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxCacheSize)
+                .expireAfter(new Expiry<String, Verified>() {
+                    @Override
+                    public long expireAfterCreate(String key, Verified v, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, v.expiresAtMillis - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Verified v, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, v, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Verified v, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
     public String generateToken(String subject, Map<String, Object> claims) {
@@ -29,8 +81,21 @@ public class JwtUtil {
                 .compact();
     }
 
+    /** Parses a token, answering repeat tokens from the verified-token cache until they expire. */
     public Jws<Claims> parse(String token) throws JwtException {
-        return Jwts.parserBuilder().setSigningKey(secretKey).build().parseClaimsJws(token);
+        if (token == null || token.isEmpty()) throw new IllegalArgumentException("JWT token is empty");
+        String key = cacheKey(token);
+        Verified hit = verified.getIfPresent(key);
+        if (hit != null) return hit.jws;
+        Jws<Claims> jws = verify(token);
+        Date exp = jws.getBody().getExpiration();
+        if (exp != null) verified.put(key, new Verified(jws, exp.getTime()));
+        return jws;
+    }
+
+    /** Full HMAC verification and claim decoding on the prebuilt parser, bypassing the cache. */
+    public Jws<Claims> verify(String token) throws JwtException {
+        return parser.parseClaimsJws(token);
     }
 
     public boolean isValid(String token) {
@@ -42,6 +107,16 @@ public class JwtUtil {
         }
     }
 
+    public long cachedTokenCount() {
+        verified.cleanUp();
+        return verified.estimatedSize();
+    }
+
+    private static String cacheKey(String token) {
+        byte[] digest = SHA256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().encodeToString(digest);
+    }
+
     public static JwtUtil withDefaults(String secret) {
         return new JwtUtil(secret, TimeUnit.HOURS.toMillis(1));
     }
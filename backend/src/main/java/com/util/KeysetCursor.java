@@ -0,0 +1,40 @@
+package com.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor over (createdAt, id), newest first. Encoded as URL-safe base64 of "epochSecond.nano:id".
+ */
+public final class KeysetCursor {
+    private final Instant createdAt;
+    private final Long id;
+
+    public KeysetCursor(Instant createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public Instant getCreatedAt() { return createdAt; }
+    public Long getId() { return id; }
+
+    public String encode() {
+        String raw = createdAt.getEpochSecond() + "." + createdAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /** @throws IllegalArgumentException when the cursor is malformed */
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            int dot = raw.indexOf('.');
+            int colon = raw.indexOf(':');
+            if (dot < 0 || colon < dot) throw new IllegalArgumentException("Invalid cursor");
+            Instant ts = Instant.ofEpochSecond(Long.parseLong(raw.substring(0, dot)), Long.parseLong(raw.substring(dot + 1, colon)));
+            return new KeysetCursor(ts, Long.parseLong(raw.substring(colon + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
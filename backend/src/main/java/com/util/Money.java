@@ -0,0 +1,44 @@
+package com.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Money is stored and summed as long minor units (cents); decimals exist only at the JSON/CSV edge.
+ */
+public final class Money {
+    private Money() { }
+
+    /** Parses a decimal amount (number or string) into cents, rounding half-up; null when absent or unparseable. */
+    public static Long toCents(Object o) {
+        if (o == null) return null;
+        try {
+            if (o instanceof Long || o instanceof Integer || o instanceof Short) return Math.multiplyExact(((Number) o).longValue(), 100L);
+            BigDecimal d = o instanceof BigDecimal ? (BigDecimal) o
+                    : o instanceof Number ? BigDecimal.valueOf(((Number) o).doubleValue())
+                    : new BigDecimal(o.toString().trim());
+            return d.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /** Cents as a JSON number; doubles print exactly to two places for any realistic balance. */
+    public static double toDecimal(long cents) {
+        return cents / 100.0;
+    }
+
+    /** Cents as a plain "-12.05" style string (CSV). */
+    public static String format(long cents) {
+        long abs = Math.abs(cents);
+        long units = abs / 100;
+        int frac = (int) (abs % 100);
+        return (cents < 0 ? "-" : "") + units + (frac < 10 ? ".0" : ".") + frac;
+    }
+
+    /** Percentage of target reached, capped at 100; 0 for a non-positive target. */
+    public static double progress(long currentCents, long targetCents) {
+        if (targetCents <= 0) return 0.0;
+        return Math.min(100.0, currentCents * 100.0 / targetCents);
+    }
+}
@@ -0,0 +1,34 @@
+package com.util;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Number of SQL statements Hibernate prepared for the current request. QueryCountFilter binds a counter to the
+ * request thread; statements issued on other threads (hashing pool, background jobs) are not counted.
+ */
+public final class QueryCounter {
+    private static final ThreadLocal<QueryCounter> CURRENT = new ThreadLocal<>();
+
+    /** Registered as hibernate.session_factory.statement_inspector; passes every statement through unchanged. */
+    public static final StatementInspector INSPECTOR = sql -> {
+        QueryCounter c = CURRENT.get();
+        if (c != null) c.count++;
+        return sql;
+    };
+
+    private int count;
+
+    public static QueryCounter bind() {
+        QueryCounter c = new QueryCounter();
+        CURRENT.set(c);
+        return c;
+    }
+
+    public static void unbind() {
+        CURRENT.remove();
+    }
+
+    public int get() {
+        return count;
+    }
+}
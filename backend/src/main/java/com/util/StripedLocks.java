@@ -0,0 +1,49 @@
+package com.util;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Fixed set of locks addressed by a long key (a jar id). Keys that share a stripe also share its lock, which only
+ * serializes them; memory stays constant however many keys there are. Several keys are locked in stripe order, so
+ * two multi-key callers cannot deadlock each other.
+ */
+public final class StripedLocks {
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    /** @param stripes rounded up to a power of two */
+    public StripedLocks(int stripes) {
+        int n = StripedRateLimiter.ceilPowerOfTwo(stripes);
+        this.stripes = new ReentrantLock[n];
+        for (int i = 0; i < n; i++) this.stripes[i] = new ReentrantLock();
+        this.mask = n - 1;
+    }
+
+    public <T> T call(long key, Supplier<T> body) {
+        ReentrantLock lock = stripes[index(key)];
+        lock.lock();
+        try {
+            return body.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public <T> T call(Collection<Long> keys, Supplier<T> body) {
+        int[] idx = keys.stream().mapToInt(this::index).distinct().sorted().toArray();
+        int locked = 0;
+        try {
+            for (; locked < idx.length; locked++) stripes[idx[locked]].lock();
+            return body.get();
+        } finally {
+            while (locked > 0) stripes[idx[--locked]].unlock();
+        }
+    }
+
+    int index(long key) {
+        long h = key * 0x9E3779B97F4A7C15L; // spread sequential ids over the stripes
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
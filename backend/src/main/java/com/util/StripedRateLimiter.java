@@ -0,0 +1,103 @@
+package com.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free per-key token bucket with a fixed memory bound.
+ * <p>
+ * Each bucket is one {@code AtomicLong} holding its GCRA "theoretical arrival time": a permit moves it one emission
+ * interval forward, and is refused when that would put it more than {@code burst} intervals ahead of now. This is
+ * equivalent to a token bucket of {@code burst} tokens refilled at {@code permitsPerMinute}, updated by a single CAS.
+ * <p>
+ * Buckets live in a fixed table split into stripes of {@link #WAYS} slots; a key only ever occupies a slot of its
+ * stripe. A new key takes a free slot or evicts the least recently used bucket of the stripe, so memory never grows
+ * and a flood of distinct keys can only displace idle buckets first. An evicted key starts again with a full burst.
+ * Two threads adding the same key at once may briefly create two buckets; the earlier slot wins afterwards.
+ */
+public final class StripedRateLimiter {
+    static final int WAYS = 8;
+
+    private static final class Bucket {
+        final String key;
+        final AtomicLong tat = new AtomicLong(Long.MIN_VALUE);
+        volatile long lastSeen;
+        Bucket(String key, long now) { this.key = key; this.lastSeen = now; }
+    }
+
+    private final AtomicReferenceArray<Bucket> table;
+    private final int stripeMask;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final LongAdder evictions = new LongAdder();
+
+    /** @param capacity bucket slots, rounded up to a power of two (at least one stripe) */
+    public StripedRateLimiter(int capacity, double permitsPerMinute, int burst) {
+        if (permitsPerMinute <= 0 || burst < 1) throw new IllegalArgumentException("rate and burst must be positive");
+        int stripes = ceilPowerOfTwo((capacity + WAYS - 1) / WAYS);
+        this.table = new AtomicReferenceArray<>(stripes * WAYS);
+        this.stripeMask = stripes - 1;
+        this.intervalNanos = (long) (TimeUnit.MINUTES.toNanos(1) / permitsPerMinute);
+        this.toleranceNanos = intervalNanos * burst;
+    }
+
+    /** Takes a permit for the key: 0 when granted, otherwise the nanoseconds until one will be available. */
+    public long tryAcquire(String key) {
+        long now = System.nanoTime();
+        AtomicLong tat = bucket(key, now).tat;
+        while (true) {
+            long current = tat.get();
+            long next = (current == Long.MIN_VALUE || current - now < 0 ? now : current) + intervalNanos;
+            long wait = next - now - toleranceNanos;
+            if (wait > 0) return wait;
+            if (tat.compareAndSet(current, next)) return 0L;
+        }
+    }
+
+    public int capacity() { return table.length(); }
+    public long evictions() { return evictions.sum(); }
+
+    /** Occupied slots (a scan; for metrics and tests). */
+    public int size() {
+        int n = 0;
+        for (int i = 0; i < table.length(); i++) if (table.get(i) != null) n++;
+        return n;
+    }
+
+    static int ceilPowerOfTwo(int n) {
+        return n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+    }
+
+    private Bucket bucket(String key, long now) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        int base = (h & stripeMask) * WAYS;
+        while (true) {
+            int free = -1;
+            int lru = -1;
+            Bucket victim = null;
+            for (int i = base; i < base + WAYS; i++) {
+                Bucket b = table.get(i);
+                if (b == null) {
+                    if (free < 0) free = i;
+                } else if (b.key.equals(key)) {
+                    b.lastSeen = now;
+                    return b;
+                } else if (victim == null || b.lastSeen - victim.lastSeen < 0) {
+                    victim = b;
+                    lru = i;
+                }
+            }
+            Bucket fresh = new Bucket(key, now);
+            if (free >= 0) {
+                if (table.compareAndSet(free, null, fresh)) return fresh;
+            } else if (table.compareAndSet(lru, victim, fresh)) {
+                evictions.increment();
+                return fresh;
+            }
+            // lost a race for the slot: rescan, the key may have been added meanwhile
+        }
+    }
+}
@@ -0,0 +1,38 @@
+-- Schema as ddl-auto=update left it before versioned migrations (money as DOUBLE, AUTO_INCREMENT deposit ids).
+-- Existing databases are exactly this and are baselined at V1 (spring.flyway.baseline-on-migrate); V2+ bring
+-- both them and new databases to the current schema. Scripts stay within syntax H2's MySQL mode also accepts,
+-- so the migration tests run in memory.
+
+CREATE TABLE users (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    email VARCHAR(160) NOT NULL,
+    name VARCHAR(120) NOT NULL,
+    password_hash VARCHAR(120) NOT NULL,
+    PRIMARY KEY (id)
+);
+CREATE UNIQUE INDEX uk_user_email ON users (email);
+
+CREATE TABLE jars (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(140) NOT NULL,
+    target_amount DOUBLE NOT NULL,
+    current_amount DOUBLE NOT NULL,
+    description VARCHAR(400),
+    created_at DATETIME(6) NOT NULL,
+    user_id BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_jar_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE deposits (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    amount DOUBLE NOT NULL,
+    description VARCHAR(300),
+    created_at DATETIME(6) NOT NULL,
+    jar_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_dep_jar FOREIGN KEY (jar_id) REFERENCES jars (id),
+    CONSTRAINT fk_dep_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+CREATE INDEX idx_dep_jar ON deposits (jar_id);
@@ -0,0 +1,2 @@
+-- Per-user token version; bumping it revokes every JWT issued before (logout?all=true)
+ALTER TABLE users ADD COLUMN token_version INT NOT NULL DEFAULT 0;
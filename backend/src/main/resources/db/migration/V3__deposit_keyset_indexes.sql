@@ -0,0 +1,5 @@
+-- Keyset pagination (created_at, id) per jar and per user. The composite jar index is created before the old
+-- single-column one is dropped, so fk_dep_jar stays covered throughout.
+CREATE INDEX idx_dep_jar_created ON deposits (jar_id, created_at, id);
+ALTER TABLE deposits DROP INDEX idx_dep_jar;
+CREATE INDEX idx_dep_user ON deposits (user_id, created_at, id);
@@ -0,0 +1,11 @@
+-- DOUBLE currency columns -> BIGINT cents. Runs exactly once; if any statement fails the migration is marked
+-- failed and the application does not start, so zeroed cents columns are never served.
+ALTER TABLE jars ADD COLUMN target_amount_cents BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE jars ADD COLUMN current_amount_cents BIGINT NOT NULL DEFAULT 0;
+UPDATE jars SET target_amount_cents = ROUND(target_amount * 100), current_amount_cents = ROUND(current_amount * 100);
+ALTER TABLE jars DROP COLUMN target_amount;
+ALTER TABLE jars DROP COLUMN current_amount;
+
+ALTER TABLE deposits ADD COLUMN amount_cents BIGINT NOT NULL DEFAULT 0;
+UPDATE deposits SET amount_cents = ROUND(amount * 100);
+ALTER TABLE deposits DROP COLUMN amount;
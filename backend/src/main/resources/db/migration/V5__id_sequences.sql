@@ -0,0 +1,8 @@
+-- Pooled table generator for deposit ids (JDBC insert batching); starts above every existing id.
+-- Other segments (deposit_events) are added by their own migrations.
+CREATE TABLE id_sequences (
+    sequence_name VARCHAR(255) NOT NULL,
+    next_val BIGINT,
+    PRIMARY KEY (sequence_name)
+);
+INSERT INTO id_sequences (sequence_name, next_val) SELECT 'deposits', COALESCE(MAX(id), 0) + 1 FROM deposits;
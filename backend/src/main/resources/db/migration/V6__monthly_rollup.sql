@@ -0,0 +1,16 @@
+-- Deposit sum and count per jar and UTC month, maintained with every deposit write (MonthlyRollupService)
+CREATE TABLE jar_monthly_totals (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    jar_id BIGINT NOT NULL,
+    yyyymm INT NOT NULL,
+    amount_cents BIGINT NOT NULL,
+    deposit_count BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_jmt_jar_month UNIQUE (jar_id, yyyymm)
+);
+CREATE INDEX idx_jmt_user_month ON jar_monthly_totals (user_id, yyyymm);
+
+INSERT INTO jar_monthly_totals (user_id, jar_id, yyyymm, amount_cents, deposit_count)
+SELECT user_id, jar_id, YEAR(created_at) * 100 + MONTH(created_at), SUM(amount_cents), COUNT(*)
+FROM deposits GROUP BY user_id, jar_id, YEAR(created_at) * 100 + MONTH(created_at);
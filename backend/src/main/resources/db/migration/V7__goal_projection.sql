@@ -0,0 +1,12 @@
+-- Optional goal date per jar and the per-jar savings-rate state (GoalProjectionService builds it from the
+-- monthly rollup for jars that have none)
+ALTER TABLE jars ADD COLUMN target_date DATE;
+
+CREATE TABLE jar_projections (
+    jar_id BIGINT NOT NULL,
+    first_ym INT NOT NULL,
+    open_ym INT NOT NULL,
+    open_cents BIGINT NOT NULL,
+    ewma_cents DOUBLE NOT NULL,
+    PRIMARY KEY (jar_id)
+);
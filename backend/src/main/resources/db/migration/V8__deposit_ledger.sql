@@ -0,0 +1,36 @@
+-- Append-only deposit ledger with periodic per-jar balance snapshots (DepositLedger)
+CREATE TABLE deposit_events (
+    id BIGINT NOT NULL,
+    jar_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    deposit_id BIGINT NOT NULL,
+    seq BIGINT NOT NULL,
+    type VARCHAR(16) NOT NULL,
+    delta_cents BIGINT NOT NULL,
+    amount_cents BIGINT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_dev_jar_seq UNIQUE (jar_id, seq)
+);
+
+CREATE TABLE jar_balance_snapshots (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    jar_id BIGINT NOT NULL,
+    seq BIGINT NOT NULL,
+    balance_cents BIGINT NOT NULL,
+    taken_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_jbs_jar_seq UNIQUE (jar_id, seq)
+);
+CREATE INDEX idx_jbs_jar_taken ON jar_balance_snapshots (jar_id, taken_at);
+
+-- Existing deposits become CREATED events, numbered per jar in created_at order, then one snapshot per jar
+INSERT INTO deposit_events (id, jar_id, user_id, deposit_id, seq, type, delta_cents, amount_cents, created_at)
+SELECT ROW_NUMBER() OVER (ORDER BY id), jar_id, user_id, id,
+       ROW_NUMBER() OVER (PARTITION BY jar_id ORDER BY created_at, id), 'CREATED', amount_cents, amount_cents, created_at
+FROM deposits;
+
+INSERT INTO jar_balance_snapshots (jar_id, seq, balance_cents, taken_at)
+SELECT jar_id, MAX(seq), SUM(delta_cents), MAX(created_at) FROM deposit_events GROUP BY jar_id;
+
+INSERT INTO id_sequences (sequence_name, next_val) SELECT 'deposit_events', COALESCE(MAX(id), 0) + 1 FROM deposit_events;
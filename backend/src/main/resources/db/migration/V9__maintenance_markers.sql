@@ -0,0 +1,9 @@
+-- Completion times of maintenance runs, by name (MonthlyRollupService: the last completed rollup check)
+CREATE TABLE maintenance_markers (
+    name VARCHAR(64) NOT NULL,
+    marked_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (name)
+);
+
+-- Jars with ledger events since a point in time: the startup rollup check only revisits those
+CREATE INDEX idx_dev_created ON deposit_events (created_at);
@@ -0,0 +1,65 @@
+package com;
+
+import com.model.JarEntity;
+import com.model.UserEntity;
+import com.repo.UserRepo;
+import com.service.JarService;
+import com.util.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/** POST /api/jars/{id}/recalc is for the jar's owner only; anyone else's jar is "not found". */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class JarRecalcEndpointTest {
+
+    @Autowired MockMvc mvc;
+    @Autowired UserRepo userRepo;
+    @Autowired JarService jarService;
+    @Autowired JwtUtil jwtUtil;
+
+    @Test
+    void onlyTheOwnerMayRecalculate() throws Exception {
+        UserEntity owner = user();
+        UserEntity other = user();
+        JarEntity jar = jarService.create(owner, "Owned", 10_000L, "", null);
+        String recalc = "/api/jars/" + jar.getId() + "/recalc";
+
+        assertThat(status(recalc, null)).isEqualTo(401);
+        assertThat(status(recalc, other)).isEqualTo(404);
+        assertThat(status(recalc, owner)).isEqualTo(200);
+    }
+
+    private UserEntity user() {
+        UserEntity u = new UserEntity();
+        u.setEmail(UUID.randomUUID() + "@example.com");
+        u.setName("Recalc");
+        u.setPasswordHash("x");
+        return userRepo.save(u);
+    }
+
+    private int status(String path, UserEntity as) throws Exception {
+        MockHttpServletRequestBuilder request = post(path);
+        if (as != null) {
+            Map<String, Object> claims = new HashMap<>();
+            claims.put("userId", as.getId());
+            claims.put("tv", as.getTokenVersion());
+            request.header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken(as.getEmail(), claims));
+        }
+        return mvc.perform(request).andReturn().getResponse().getStatus();
+    }
+}
@@ -0,0 +1,134 @@
+package com;
+
+import com.config.QueryCountHeaderAdvice;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.model.UserEntity;
+import com.repo.UserRepo;
+import com.util.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * SQL statements per request (X-Query-Count) for the jar and deposit handlers. A change here means an
+ * endpoint gained or lost a round trip: update the expected count only when that is intended.
+ */
+@SpringBootTest(properties = "finjar.debug.query-count-header=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class QueryCountTest {
+
+    @Autowired MockMvc mvc;
+    @Autowired UserRepo userRepo;
+    @Autowired JwtUtil jwtUtil;
+    @Autowired ObjectMapper json;
+
+    private String bearer;
+
+    @BeforeEach
+    void user() {
+        UserEntity u = new UserEntity();
+        u.setEmail(UUID.randomUUID() + "@example.com");
+        u.setName("Counter");
+        u.setPasswordHash("x");
+        u = userRepo.save(u);
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", u.getId());
+        claims.put("tv", u.getTokenVersion());
+        bearer = "Bearer " + jwtUtil.generateToken(u.getEmail(), claims);
+    }
+
+    @Test
+    void listJars() throws Exception {
+        createJar();
+        createJar();
+        // one projection query, projection state joined in
+        assertThat(queries(get("/api/jars"))).isEqualTo(1);
+        // served from the per-user list cache
+        assertThat(queries(get("/api/jars"))).isZero();
+    }
+
+    @Test
+    void listDepositsOfJar() throws Exception {
+        long jarId = createJar();
+        deposit(jarId);
+        deposit(jarId);
+        // ownership check + one projection query
+        assertThat(queries(get("/api/deposits/jar/" + jarId))).isEqualTo(2);
+    }
+
+    @Test
+    void createDeposit() throws Exception {
+        long jarId = createJar();
+        deposit(jarId);
+        // owner-scoped balance increment, insert, rollup upsert, projection select + update, ledger max(seq) + insert
+        assertThat(queries(depositRequest(jarId))).isEqualTo(7);
+    }
+
+    @Test
+    void deleteDeposit() throws Exception {
+        long jarId = createJar();
+        deposit(jarId);
+        long depositId = deposit(jarId);
+        // owner-scoped select, guarded delete, balance decrement, then the same rollup/projection/ledger writes
+        assertThat(queries(delete("/api/deposits/" + depositId))).isEqualTo(8);
+    }
+
+    @Test
+    void deleteJar() throws Exception {
+        long jarId = createJar();
+        deposit(jarId);
+        deposit(jarId);
+        // owner-scoped select, one bulk delete per dependent table, owner-scoped jar delete
+        assertThat(queries(delete("/api/jars/" + jarId))).isEqualTo(7);
+    }
+
+    private long createJar() throws Exception {
+        MvcResult r = perform(post("/api/jars").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Jar\",\"targetAmount\":100}"));
+        return body(r).path("jar").path("id").asLong();
+    }
+
+    private long deposit(long jarId) throws Exception {
+        return body(perform(depositRequest(jarId))).path("deposit").path("id").asLong();
+    }
+
+    private static MockHttpServletRequestBuilder depositRequest(long jarId) {
+        return post("/api/deposits/jar/" + jarId).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"amount\":12.5,\"description\":\"d\"}");
+    }
+
+    private int queries(MockHttpServletRequestBuilder request) throws Exception {
+        String count = perform(request).getResponse().getHeader(QueryCountHeaderAdvice.HEADER);
+        assertThat(count).isNotNull();
+        return Integer.parseInt(count);
+    }
+
+    private MvcResult perform(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult r = mvc.perform(request.header(HttpHeaders.AUTHORIZATION, bearer)).andReturn();
+        assertThat(r.getResponse().getStatus()).as(r.getResponse().getContentAsString()).isEqualTo(200);
+        return r;
+    }
+
+    private JsonNode body(MvcResult r) throws Exception {
+        return json.readTree(r.getResponse().getContentAsString());
+    }
+}
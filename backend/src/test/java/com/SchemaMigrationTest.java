@@ -0,0 +1,122 @@
+package com;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * db/migration against the two databases the application meets: an empty one, and one created by
+ * ddl-auto=update before versioned migrations (V1's schema, no flyway_schema_history). Both must end on the
+ * latest version with a schema the entities validate against (ddl-auto=validate in the test profile).
+ */
+class SchemaMigrationTest {
+
+    @Test
+    void emptySchemaMigratesToLatest() {
+        String url = url("empty");
+        try (ConfigurableApplicationContext ctx = start(url)) {
+            JdbcTemplate jdbc = ctx.getBean(JdbcTemplate.class);
+            assertThat(appliedVersions(ctx)).containsExactly("1", "2", "3", "4", "5", "6", "7", "8", "9");
+            assertThat(jdbc.queryForList("SELECT sequence_name FROM id_sequences ORDER BY sequence_name", String.class))
+                    .containsExactly("deposit_events", "deposits");
+        }
+    }
+
+    @Test
+    void preSeriesSchemaIsBaselinedAndUpgraded() throws Exception {
+        String url = url("legacy");
+        JdbcTemplate legacy = legacySchema(url);
+        legacy.update("INSERT INTO jars (id, name, target_amount, current_amount, created_at, user_id) "
+                + "VALUES (1, 'Trip', 1999.99, 10.3, '2024-01-01 00:00:00', 1), (2, 'Empty', 50, 0, '2024-01-01 00:00:00', 1)");
+        legacy.update("INSERT INTO deposits (id, amount, created_at, jar_id, user_id) VALUES "
+                + "(7, 10.1, '2024-01-05 10:00:00', 1, 1), (9, 0.2, '2024-02-05 10:00:00', 1, 1)");
+
+        try (ConfigurableApplicationContext ctx = start(url)) {
+            JdbcTemplate jdbc = ctx.getBean(JdbcTemplate.class);
+            assertThat(appliedVersions(ctx)).containsExactly("1", "2", "3", "4", "5", "6", "7", "8", "9");
+
+            assertThat(jdbc.queryForObject("SELECT token_version FROM users WHERE id = 1", Integer.class)).isZero();
+            assertThat(jdbc.queryForList("SELECT target_amount_cents, current_amount_cents FROM jars ORDER BY id"))
+                    .extracting(r -> r.get("target_amount_cents") + "/" + r.get("current_amount_cents"))
+                    .containsExactly("199999/1030", "5000/0");
+            assertThat(jdbc.queryForList("SELECT amount_cents FROM deposits ORDER BY id", Long.class))
+                    .containsExactly(1010L, 20L);
+
+            // New deposit ids continue above the AUTO_INCREMENT ones; ledger ids above the backfilled events
+            assertThat(jdbc.queryForObject("SELECT next_val FROM id_sequences WHERE sequence_name = 'deposits'", Long.class))
+                    .isEqualTo(10L);
+            assertThat(jdbc.queryForObject("SELECT next_val FROM id_sequences WHERE sequence_name = 'deposit_events'", Long.class))
+                    .isEqualTo(3L);
+
+            assertThat(rows(jdbc, "SELECT yyyymm, amount_cents, deposit_count FROM jar_monthly_totals ORDER BY yyyymm"))
+                    .containsExactly("202401/1010/1", "202402/20/1");
+            assertThat(rows(jdbc, "SELECT deposit_id, seq, type, delta_cents FROM deposit_events ORDER BY seq"))
+                    .containsExactly("7/1/CREATED/1010", "9/2/CREATED/20");
+            assertThat(rows(jdbc, "SELECT jar_id, seq, balance_cents FROM jar_balance_snapshots"))
+                    .containsExactly("1/2/1030");
+        }
+    }
+
+    @Test
+    void failedCentsConversionStopsStartup() throws Exception {
+        String url = url("overflow");
+        JdbcTemplate legacy = legacySchema(url);
+        // 1e20 * 100 does not fit a BIGINT: V4 fails part way through the jars table
+        legacy.update("INSERT INTO jars (id, name, target_amount, current_amount, created_at, user_id) "
+                + "VALUES (1, 'Ok', 100, 12.5, '2024-01-01 00:00:00', 1), (2, 'Bad', 1e20, 0, '2024-01-01 00:00:00', 1)");
+
+        assertThatThrownBy(() -> start(url).close()).hasRootCauseInstanceOf(SQLException.class);
+
+        // The application never served the half-converted table, and the legacy amounts are untouched
+        assertThat(legacy.queryForObject("SELECT current_amount FROM jars WHERE id = 1", Double.class)).isEqualTo(12.5);
+    }
+
+    private static JdbcTemplate legacySchema(String url) throws SQLException {
+        JdbcTemplate legacy = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+        try (Connection c = legacy.getDataSource().getConnection()) {
+            ScriptUtils.executeSqlScript(c, new ClassPathResource("db/migration/V1__baseline.sql"));
+        }
+        legacy.update("INSERT INTO users (id, email, name, password_hash) VALUES (1, 'a@b.c', 'A', 'x')");
+        return legacy;
+    }
+
+    static String url(String name) {
+        return "jdbc:h2:mem:" + name + System.nanoTime() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    }
+
+    static ConfigurableApplicationContext start(String url) {
+        return new SpringApplicationBuilder(SimpleFinJarApplication.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + url);
+    }
+
+    private static List<String> appliedVersions(ConfigurableApplicationContext ctx) {
+        MigrationInfo[] applied = ctx.getBean(Flyway.class).info().applied();
+        return Arrays.stream(applied).map(m -> m.getVersion().getVersion()).collect(Collectors.toList());
+    }
+
+    private static List<String> rows(JdbcTemplate jdbc, String sql) {
+        return jdbc.queryForList(sql).stream()
+                .map(Map::values)
+                .map(v -> v.stream().map(String::valueOf).collect(Collectors.joining("/")))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,78 @@
+package com;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.model.UserEntity;
+import com.repo.UserRepo;
+import com.util.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/** GET /api/stream/jars opens with a single-use ticket, never with a JWT in the query string. */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StreamTicketTest {
+
+    @Autowired MockMvc mvc;
+    @Autowired UserRepo userRepo;
+    @Autowired JwtUtil jwtUtil;
+    @Autowired ObjectMapper json;
+
+    private String jwt;
+
+    @BeforeEach
+    void user() {
+        UserEntity u = userRepo.findByEmail("stream@example.com").orElseGet(() -> {
+            UserEntity n = new UserEntity();
+            n.setEmail("stream@example.com");
+            n.setName("Stream");
+            n.setPasswordHash("x");
+            return userRepo.save(n);
+        });
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", u.getId());
+        claims.put("tv", u.getTokenVersion());
+        jwt = jwtUtil.generateToken(u.getEmail(), claims);
+    }
+
+    @Test
+    void ticketOpensOneStream() throws Exception {
+        MvcResult issued = mvc.perform(post("/api/stream/tickets").header(HttpHeaders.AUTHORIZATION, "Bearer " + jwt)).andReturn();
+        assertThat(issued.getResponse().getStatus()).isEqualTo(200);
+        String ticket = json.readTree(issued.getResponse().getContentAsString()).path("ticket").asText();
+        assertThat(ticket).isNotEmpty();
+
+        MvcResult stream = mvc.perform(get("/api/stream/jars").param("ticket", ticket).accept(MediaType.TEXT_EVENT_STREAM)).andReturn();
+        assertThat(stream.getResponse().getStatus()).isEqualTo(200);
+        assertThat(stream.getRequest().isAsyncStarted()).isTrue();
+        // used up: a reconnect needs a new ticket
+        assertThat(status(get("/api/stream/jars").param("ticket", ticket))).isEqualTo(401);
+    }
+
+    @Test
+    void jwtInTheQueryStringIsRejected() throws Exception {
+        assertThat(status(get("/api/stream/jars").param("token", jwt))).isEqualTo(401);
+        assertThat(status(get("/api/stream/jars").param("ticket", jwt))).isEqualTo(401);
+        assertThat(status(post("/api/stream/tickets"))).isEqualTo(401);
+    }
+
+    private int status(MockHttpServletRequestBuilder request) throws Exception {
+        return mvc.perform(request.accept(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_JSON)).andReturn().getResponse().getStatus();
+    }
+}
@@ -0,0 +1,58 @@
+package com.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DataSourceConcurrencyConfigTest {
+
+    private final MockEnvironment env = new MockEnvironment().withProperty("finjar.db.limit-concurrency", "true");
+
+    @Test
+    void eachPoolGetsPermitsForItsOwnSize() throws Exception {
+        try (HikariDataSource small = pool(2); HikariDataSource large = pool(4)) {
+            DataSource primary = DataSourceConcurrencyConfig.limit(small, null, env);
+            DataSource replica = DataSourceConcurrencyConfig.limit(large, null, env);
+            try (Connection p1 = primary.getConnection(); Connection p2 = primary.getConnection()) {
+                assertThatThrownBy(primary::getConnection).isInstanceOf(SQLTransientConnectionException.class)
+                        .hasMessageContaining("permit");
+                // the primary's permits are all taken; the replica still has its own four
+                try (Connection r1 = replica.getConnection(); Connection r2 = replica.getConnection();
+                     Connection r3 = replica.getConnection(); Connection r4 = replica.getConnection()) {
+                    assertThat(r4.isValid(1)).isTrue();
+                }
+            }
+            try (Connection again = primary.getConnection()) {
+                assertThat(again.isValid(1)).isTrue(); // permits return on close
+            }
+        }
+    }
+
+    @Test
+    void postProcessorWrapsOnlyTheHikariPool() throws Exception {
+        BeanPostProcessor bpp = DataSourceConcurrencyConfig.dataSourceConcurrencyLimiter(env);
+        DataSource router = new DriverManagerDataSource("jdbc:h2:mem:router");
+        assertThat(bpp.postProcessAfterInitialization(router, "dataSource")).isSameAs(router);
+        try (HikariDataSource pool = pool(2)) {
+            assertThat(bpp.postProcessAfterInitialization(pool, "dataSource"))
+                    .isInstanceOf(DataSourceConcurrencyConfig.ConcurrencyLimitingDataSource.class);
+        }
+    }
+
+    private static HikariDataSource pool(int size) {
+        HikariDataSource ds = new HikariDataSource();
+        ds.setJdbcUrl("jdbc:h2:mem:limit" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        ds.setMaximumPoolSize(size);
+        ds.setConnectionTimeout(250);
+        return ds;
+    }
+}
@@ -0,0 +1,52 @@
+package com.config;
+
+import com.model.DepositEntity;
+import com.model.DepositEventEntity;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.io.Serializable;
+import java.sql.Connection;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Id blocks are claimed on their own pool: generating ids needs no connection from the exhausted main pool. */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.hikari.maximum-pool-size=2", "spring.datasource.hikari.connection-timeout=1000"})
+@ActiveProfiles("test")
+class IdBlockGeneratorTest {
+
+    @Autowired DataSource dataSource;
+    @Autowired EntityManagerFactory emf;
+
+    @Test
+    void depositIdsWhileThePoolIsExhausted() throws Exception {
+        assertThat(idsWithPoolExhausted(DepositEntity.class, 120)).hasSize(120); // crosses two block boundaries
+    }
+
+    @Test
+    void depositEventIdsWhileThePoolIsExhausted() throws Exception {
+        assertThat(idsWithPoolExhausted(DepositEventEntity.class, 120)).hasSize(120);
+    }
+
+    private Set<Serializable> idsWithPoolExhausted(Class<?> entity, int n) throws Exception {
+        SessionFactoryImplementor sf = emf.unwrap(SessionFactoryImplementor.class);
+        IdentifierGenerator ids = sf.getIdentifierGenerator(entity.getName());
+        Set<Serializable> seen = new HashSet<>();
+        try (Connection a = dataSource.getConnection(); Connection b = dataSource.getConnection();
+             Session session = sf.openSession()) {
+            for (int i = 0; i < n; i++) seen.add(ids.generate((SharedSessionContractImplementor) session, null));
+        }
+        return seen;
+    }
+}
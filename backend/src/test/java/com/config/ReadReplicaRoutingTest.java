@@ -0,0 +1,87 @@
+package com.config;
+
+import com.SimpleFinJarApplication;
+import com.model.JarEntity;
+import com.model.UserEntity;
+import com.repo.UserRepo;
+import com.service.JarService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routing against two separate in-memory databases. The "replica" has the schema but no data and no replication,
+ * so a listing served from it comes back empty.
+ */
+class ReadReplicaRoutingTest {
+    private static final long WINDOW_MS = 300;
+
+    @Test
+    void readOnlyListingsUseTheReplicaExceptRightAfterTheUsersOwnWrite() throws Exception {
+        String replicaUrl = "jdbc:h2:mem:replica" + System.nanoTime() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+        Flyway.configure().dataSource(replicaUrl, "sa", "").load().migrate();
+        try (ConfigurableApplicationContext ctx = start(
+                "--finjar.datasource.replica.url=" + replicaUrl,
+                "--finjar.datasource.replica.username=sa",
+                "--finjar.datasource.replica.password=",
+                "--finjar.datasource.read-your-writes-ms=" + WINDOW_MS,
+                "--finjar.db.limit-concurrency=true")) {
+            assertThat(ctx.getBean(DataSource.class)).isInstanceOf(ReadReplicaConfig.LazyRoutingDataSource.class);
+            JarService jars = ctx.getBean(JarService.class);
+            Long userId = user(ctx);
+            JarEntity jar = jars.create(ctx.getBean(UserRepo.class).getReferenceById(userId), "Replica", 10_000L, "", null);
+            jars.addDeposit(userId, jar.getId(), 100L, "d");
+
+            // pinned to the primary just after the write
+            assertThat(jars.listDepositViews(userId)).hasSize(1);
+            Thread.sleep(WINDOW_MS + 200);
+            // window over: served by the (empty) replica
+            assertThat(jars.listDepositViews(userId)).isEmpty();
+            assertThat(jars.listViews(userId)).isEmpty();
+            // the write itself always goes to the primary, and pins the next read there again
+            assertThat(jars.addDeposit(userId, jar.getId(), 100L, "d")).isNotNull();
+            assertThat(jars.listDepositViews(userId)).hasSize(2);
+
+            MeterRegistry meters = ctx.getBean(MeterRegistry.class);
+            assertThat(meters.find("hikaricp.connections").tag("pool", "finjar-primary").gauge()).isNotNull();
+            assertThat(meters.find("hikaricp.connections").tag("pool", "finjar-replica").gauge()).isNotNull();
+        }
+    }
+
+    @Test
+    void withoutReplicaEverythingUsesTheOnePool() throws Exception {
+        try (ConfigurableApplicationContext ctx = start("--finjar.datasource.read-your-writes-ms=" + WINDOW_MS)) {
+            assertThat(ctx.getBean(DataSource.class)).isInstanceOf(HikariDataSource.class);
+            assertThat(ctx.getBeansOfType(ReadReplicaConfig.class)).isEmpty();
+            JarService jars = ctx.getBean(JarService.class);
+            Long userId = user(ctx);
+            JarEntity jar = jars.create(ctx.getBean(UserRepo.class).getReferenceById(userId), "Single", 10_000L, "", null);
+            jars.addDeposit(userId, jar.getId(), 100L, "d");
+            Thread.sleep(WINDOW_MS + 200);
+            assertThat(jars.listDepositViews(userId)).hasSize(1);
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String... args) {
+        return new SpringApplicationBuilder(SimpleFinJarApplication.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .run(args);
+    }
+
+    private static Long user(ConfigurableApplicationContext ctx) {
+        UserEntity u = new UserEntity();
+        u.setEmail("replica@example.com");
+        u.setName("Replica");
+        u.setPasswordHash("x");
+        return ctx.getBean(UserRepo.class).save(u).getId();
+    }
+}
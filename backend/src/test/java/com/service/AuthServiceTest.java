@@ -0,0 +1,68 @@
+package com.service;
+
+import com.model.UserEntity;
+import com.repo.UserRepo;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthServiceTest {
+
+    private final UserRepo userRepo = mock(UserRepo.class);
+
+    private AuthService newInstance() {
+        return new AuthService(userRepo, mock(PasswordHasher.class), mock(LegacyHashUpgrader.class), 60_000, 1_000);
+    }
+
+    @Test
+    void missLoadsTheVersionFromTheUserRowOnce() {
+        // Revoked once before this instance started: tokens carrying tv=0 must stay rejected
+        when(userRepo.findTokenVersionById(7L)).thenReturn(Optional.of(1));
+        AuthService auth = newInstance();
+
+        assertThat(auth.isTokenVersionCurrent(7L, 0)).isFalse();
+        assertThat(auth.isTokenVersionCurrent(7L, 1)).isTrue();
+        assertThat(auth.isTokenVersionCurrent(7L, 1)).isTrue();
+        verify(userRepo, times(1)).findTokenVersionById(7L);
+    }
+
+    @Test
+    void unknownUserIsNeverCurrent() {
+        when(userRepo.findTokenVersionById(8L)).thenReturn(Optional.empty());
+
+        AuthService auth = newInstance();
+
+        assertThat(auth.isTokenVersionCurrent(8L, 0)).isFalse();
+        // the missing row is cached too: a deleted user's tokens do not hit the DB on every request
+        assertThat(auth.isTokenVersionCurrent(8L, 0)).isFalse();
+        verify(userRepo, times(1)).findTokenVersionById(8L);
+    }
+
+    @Test
+    void legacyLoginQueuesTheNewHashNotThePassword() {
+        PasswordHasher hasher = mock(PasswordHasher.class);
+        LegacyHashUpgrader upgrader = mock(LegacyHashUpgrader.class);
+        String legacy = Integer.toHexString("secret".hashCode());
+        UserEntity u = mock(UserEntity.class);
+        when(u.getId()).thenReturn(9L);
+        when(u.getPasswordHash()).thenReturn(legacy);
+        when(userRepo.findByEmail("legacy@example.com")).thenReturn(Optional.of(u));
+        when(hasher.encode("secret")).thenReturn(CompletableFuture.completedFuture("$2a$10$new"));
+
+        AuthService auth = new AuthService(userRepo, hasher, upgrader, 60_000, 1_000);
+        assertThat(auth.authenticate("legacy@example.com", "secret").join()).isSameAs(u);
+        verify(upgrader).enqueue(9L, legacy, "$2a$10$new");
+        verify(upgrader, never()).enqueue(eq(9L), eq(legacy), eq("secret"));
+        verify(hasher, times(1)).encode(anyString());
+    }
+}
@@ -0,0 +1,100 @@
+package com.service;
+
+import com.dto.JarView;
+import com.model.JarEntity;
+import com.model.UserEntity;
+import com.repo.DepositRepo;
+import com.repo.JarProjectionRepo;
+import com.repo.UserRepo;
+import com.util.GoalProjection;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Jars whose deposits predate their projection state: the first change must rebuild from the rollup. */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+@RecordApplicationEvents
+class GoalProjectionServiceTest {
+
+    @Autowired JarService jarService;
+    @Autowired UserRepo userRepo;
+    @Autowired DepositRepo depositRepo;
+    @Autowired JarProjectionRepo projectionRepo;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired ApplicationEvents events;
+
+    @Test
+    void firstDepositWithoutStateIncludesEarlierMonths() {
+        UserEntity user = user("history@example.com");
+        JarEntity jar = jarService.create(user, "History", 100_000L, "", null);
+        legacyDeposit(900_001L, jar, user, "2024-01-10 12:00:00", 1_000L);
+        legacyDeposit(900_002L, jar, user, "2024-02-10 12:00:00", 500L);
+
+        jarService.addDeposit(user.getId(), jar.getId(), 200L, "d");
+
+        assertThat(projectionRepo.findById(jar.getId())).hasValueSatisfying(p -> {
+            assertThat(p.getFirstYm()).isEqualTo(202401);
+            assertThat(p.getOpenYm()).isEqualTo(GoalProjection.yyyymm(Instant.now()));
+            assertThat(p.getOpenCents()).isEqualTo(200L);
+            assertThat(p.getEwmaCents()).isPositive();
+        });
+    }
+
+    @Test
+    void removingTheOnlyDepositWithoutStateLeavesNoState() {
+        UserEntity user = user("removal@example.com");
+        JarEntity jar = jarService.create(user, "Removal", 100_000L, "", null);
+        legacyDeposit(900_003L, jar, user, "2024-01-10 12:00:00", 1_000L);
+
+        jarService.deleteDeposit(depositRepo.findById(900_003L).orElseThrow(IllegalStateException::new));
+
+        assertThat(projectionRepo.findById(jar.getId())).isEmpty();
+    }
+
+    @Test
+    void updatedJarViewsCarryTheProjection() {
+        UserEntity user = user("views@example.com");
+        JarEntity jar = jarService.create(user, "Views", 100_000L, "", LocalDate.now(ZoneOffset.UTC).plusMonths(6));
+        jarService.addDeposit(user.getId(), jar.getId(), 1_000L, "d");
+
+        JarView updated = jarService.view(jarService.update(jar.getId(), user.getId(), "Renamed", null, null, false, null));
+        JarView recalculated = jarService.view(jarService.recalc(jar));
+        JarView published = events.stream(JarChangedEvent.class)
+                .filter(e -> JarChangedEvent.UPDATED.equals(e.getType()) && jar.getId().equals(e.getJar().getId()))
+                .reduce((first, second) -> second).map(JarChangedEvent::getJar).orElseThrow(IllegalStateException::new);
+        for (JarView v : new JarView[]{updated, recalculated, published}) {
+            assertThat(v.getMonthlyRate()).isEqualTo(10.0);
+            assertThat(v.getEtaDate()).isNotNull();
+            assertThat(v.getRequiredMonthly()).isNotNull();
+        }
+    }
+
+    private UserEntity user(String email) {
+        UserEntity u = new UserEntity();
+        u.setEmail(email);
+        u.setName("Projection");
+        u.setPasswordHash("x");
+        return userRepo.save(u);
+    }
+
+    // A deposit written before jar_projections existed: balance and rollup row, no projection state
+    private void legacyDeposit(long id, JarEntity jar, UserEntity user, String createdAt, long cents) {
+        jdbc.update("INSERT INTO deposits (id, amount_cents, created_at, jar_id, user_id) VALUES (?, ?, ?, ?, ?)",
+                id, cents, createdAt, jar.getId(), user.getId());
+        jdbc.update("UPDATE jars SET current_amount_cents = current_amount_cents + ? WHERE id = ?", cents, jar.getId());
+        int ym = Integer.parseInt(createdAt.substring(0, 4) + createdAt.substring(5, 7));
+        jdbc.update("INSERT INTO jar_monthly_totals (user_id, jar_id, yyyymm, amount_cents, deposit_count) VALUES (?, ?, ?, ?, 1)",
+                user.getId(), jar.getId(), ym, cents);
+    }
+}
@@ -0,0 +1,49 @@
+package com.service;
+
+import com.config.CacheConfig;
+import com.dto.JarView;
+import com.model.JarEntity;
+import com.model.UserEntity;
+import com.repo.UserRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** The per-user jar-list cache against a read that overlaps a write. */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class JarListCacheTest {
+
+    @Autowired JarService jarService;
+    @Autowired UserRepo userRepo;
+    @Autowired ListingVersions versions;
+    @Autowired CacheManager cacheManager;
+
+    @Test
+    void listReadBeforeAWriteIsNotServedAfterIt() {
+        UserEntity u = new UserEntity();
+        u.setEmail("late-put@example.com");
+        u.setName("Late put");
+        u.setPasswordHash("x");
+        UserEntity user = userRepo.save(u);
+        Cache cache = cacheManager.getCache(CacheConfig.JAR_LISTS);
+
+        assertThat(jarService.listViews(user.getId())).isEmpty();
+        Object readBeforeWrite = cache.get(user.getId()).get();
+        String tagBeforeWrite = versions.jarsTag(user.getId(), true);
+
+        JarEntity jar = jarService.create(user, "Trip", 10_000L, "", null);
+        // the overlapping read puts its result after the write's evict
+        cache.put(user.getId(), readBeforeWrite);
+
+        assertThat(versions.jarsTag(user.getId(), true)).isNotEqualTo(tagBeforeWrite);
+        assertThat(jarService.listViews(user.getId())).extracting(JarView::getId).containsExactly(jar.getId());
+        // the fresh list replaced the outdated entry and is served from the cache
+        assertThat(jarService.listViews(user.getId())).isSameAs(jarService.listViews(user.getId()));
+    }
+}
@@ -0,0 +1,95 @@
+package com.service;
+
+import com.model.JarEntity;
+import com.model.UserEntity;
+import com.repo.JarRepo;
+import com.repo.UserRepo;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * Concurrent deposits from more writers than pool connections, spread over one or several jars: none may fail or
+ * lose a balance update, rollup increment or ledger sequence, and the run must finish well inside the time bound.
+ * The short connection-timeout makes any writer that waits on the pool fail instead of stalling the run.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.hikari.maximum-pool-size=" + JarServiceConcurrencyTest.POOL_SIZE,
+        "spring.datasource.hikari.connection-timeout=3000"})
+@ActiveProfiles("test")
+class JarServiceConcurrencyTest {
+    static final int POOL_SIZE = 5;
+    private static final int THREADS = 2 * POOL_SIZE;
+    private static final int PER_THREAD = 50;
+    private static final Duration TIME_BOUND = Duration.ofSeconds(60);
+
+    @Autowired JarService jarService;
+    @Autowired JarRepo jarRepo;
+    @Autowired UserRepo userRepo;
+    @Autowired JdbcTemplate jdbc;
+
+    @ParameterizedTest(name = "{0} jar(s)")
+    @ValueSource(ints = {1, 2, THREADS}) // writer t deposits into jar t % jars
+    void concurrentDepositsSumExactly(int jarCount) {
+        UserEntity u = new UserEntity();
+        u.setEmail("contention-" + jarCount + "@example.com");
+        u.setName("Contention");
+        u.setPasswordHash("x");
+        UserEntity user = userRepo.save(u);
+        List<JarEntity> jars = new ArrayList<>();
+        for (int j = 0; j < jarCount; j++) jars.add(jarService.create(user, "Contention " + j, 100_000_000L, "", null));
+
+        assertTimeoutPreemptively(TIME_BOUND, () -> {
+            ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+            CountDownLatch go = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                JarEntity jar = jars.get(t % jarCount);
+                futures.add(pool.submit(() -> {
+                    go.await();
+                    for (int i = 0; i < PER_THREAD; i++) jarService.addDeposit(user.getId(), jar.getId(), 101L, "d");
+                    return null;
+                }));
+            }
+            go.countDown();
+            try {
+                for (Future<?> f : futures) f.get(); // rethrows the first failed deposit
+            } finally {
+                pool.shutdownNow();
+            }
+        });
+
+        int deposits = THREADS / jarCount * PER_THREAD;
+        long expected = 101L * deposits;
+        for (JarEntity jar : jars) {
+            assertThat(jarRepo.findById(jar.getId()).get().getCurrentCents()).isEqualTo(expected);
+            assertThat(jdbc.queryForObject("SELECT SUM(amount_cents) FROM deposits WHERE jar_id = ?", Long.class, jar.getId()))
+                    .isEqualTo(expected);
+            assertThat(jdbc.queryForObject("SELECT SUM(amount_cents) FROM jar_monthly_totals WHERE jar_id = ?", Long.class, jar.getId()))
+                    .isEqualTo(expected);
+            // ledger sequence numbers run densely from 1 per jar, and the ledger balance agrees
+            assertThat(jdbc.queryForList("SELECT seq FROM deposit_events WHERE jar_id = ? ORDER BY seq", Long.class, jar.getId()))
+                    .containsExactlyElementsOf(LongStream.rangeClosed(1, deposits).boxed().collect(Collectors.toList()));
+            assertThat(jarService.ledgerBalance(user.getId(), jar.getId(), LocalDate.now(ZoneOffset.UTC))).isEqualTo(expected);
+            assertThat(jarService.recalc(jar).getCurrentCents()).isEqualTo(expected);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.service;
+
+import com.model.JarEntity;
+import com.model.UserEntity;
+import com.repo.MaintenanceMarkerRepo;
+import com.repo.UserRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** The startup check revisits only jars with ledger events since the last completed check. */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class MonthlyRollupServiceTest {
+
+    @Autowired MonthlyRollupService rollup;
+    @Autowired JarService jarService;
+    @Autowired UserRepo userRepo;
+    @Autowired MaintenanceMarkerRepo markerRepo;
+    @Autowired JdbcTemplate jdbc;
+
+    @Test
+    void checkChangedSkipsJarsWithoutRecentEvents() {
+        UserEntity u = new UserEntity();
+        u.setEmail("rollup-check@example.com");
+        u.setName("Rollup");
+        u.setPasswordHash("x");
+        UserEntity user = userRepo.save(u);
+        JarEntity changed = jarService.create(user, "Changed", 100_000L, "", null);
+        JarEntity quiet = jarService.create(user, "Quiet", 100_000L, "", null);
+        jarService.addDeposit(user.getId(), changed.getId(), 300L, "d");
+        jarService.addDeposit(user.getId(), quiet.getId(), 400L, "d");
+        // the quiet jar's only event is old; both rollups are then damaged behind the application's back
+        jdbc.update("UPDATE deposit_events SET created_at = '2024-01-01 00:00:00' WHERE jar_id = ?", quiet.getId());
+        jdbc.update("UPDATE jar_monthly_totals SET amount_cents = 1 WHERE jar_id IN (?, ?)", changed.getId(), quiet.getId());
+
+        jdbc.update("DELETE FROM maintenance_markers");
+        assertThat(rollup.checkChanged()).isGreaterThanOrEqualTo(2); // no marker: every jar
+        assertThat(markerRepo.existsById(MonthlyRollupService.CHECKED_MARKER)).isTrue();
+        assertThat(cents(changed)).isEqualTo(300L);
+        assertThat(cents(quiet)).isEqualTo(400L);
+
+        jdbc.update("UPDATE jar_monthly_totals SET amount_cents = 1 WHERE jar_id IN (?, ?)", changed.getId(), quiet.getId());
+        rollup.checkChanged();
+        assertThat(cents(changed)).isEqualTo(300L);
+        assertThat(cents(quiet)).isEqualTo(1L); // not revisited; the full check still finds it
+        assertThat(rollup.checkAll(true)).isEqualTo(1);
+        assertThat(cents(quiet)).isEqualTo(400L);
+    }
+
+    private long cents(JarEntity jar) {
+        return jdbc.queryForObject("SELECT SUM(amount_cents) FROM jar_monthly_totals WHERE jar_id = ?", Long.class, jar.getId());
+    }
+}
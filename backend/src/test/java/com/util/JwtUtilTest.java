@@ -0,0 +1,38 @@
+package com.util;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtUtilTest {
+    private static final String SECRET = "0123456789abcdef0123456789abcdef0123456789abcdef";
+
+    @Test
+    void cachedTokenExpiresAtItsExp() throws Exception {
+        JwtUtil jwt = new JwtUtil(SECRET, 1_000L);
+        String token = jwt.generateToken("a@example.com", Collections.singletonMap("userId", 1L));
+        jwt.parse(token);
+        assertThat(jwt.cachedTokenCount()).isEqualTo(1);
+
+        Thread.sleep(1_500L); // exp has second precision
+        assertThat(jwt.cachedTokenCount()).isZero();
+        assertThatThrownBy(() -> jwt.parse(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    void staysBoundedAndKeepsCachingWhenFull() {
+        JwtUtil jwt = new JwtUtil(SECRET, 3_600_000L, 10);
+        String last = null;
+        for (long i = 0; i < 50; i++) {
+            last = jwt.generateToken("user" + i + "@example.com", Collections.singletonMap("userId", i));
+            jwt.parse(last);
+        }
+        assertThat(jwt.cachedTokenCount()).isLessThanOrEqualTo(10);
+        // evicts instead of refusing new entries; parsing is unaffected
+        assertThat(jwt.parse(last).getBody().getSubject()).isEqualTo("user49@example.com");
+    }
+}
@@ -0,0 +1,95 @@
+package com.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StripedRateLimiterTest {
+
+    @Test
+    void burstThenRetryAfterOneInterval() {
+        StripedRateLimiter limiter = new StripedRateLimiter(64, 60, 5);
+        for (int i = 0; i < 5; i++) assertThat(limiter.tryAcquire("ip")).isZero();
+        long wait = limiter.tryAcquire("ip");
+        assertThat(wait).isPositive().isLessThanOrEqualTo(TimeUnit.SECONDS.toNanos(1));
+        // other keys have their own bucket
+        assertThat(limiter.tryAcquire("other")).isZero();
+    }
+
+    @Test
+    void permitsPerKeyStayWithinBurstPlusRefillUnderContention() throws Exception {
+        int keys = 16;
+        double perMinute = 600;
+        int burst = 20;
+        StripedRateLimiter limiter = new StripedRateLimiter(keys * 8, perMinute, burst);
+        AtomicLongArray granted = new AtomicLongArray(keys);
+
+        long elapsed = hammer(8, 1, () -> {
+            int k = ThreadLocalRandom.current().nextInt(keys);
+            if (limiter.tryAcquire("10.0.0." + k) == 0) granted.incrementAndGet(k);
+        });
+
+        long bound = burst + (long) Math.ceil(perMinute * elapsed / TimeUnit.MINUTES.toNanos(1)) + 1;
+        for (int k = 0; k < keys; k++) assertThat(granted.get(k)).isBetween((long) burst, bound);
+        assertThat(limiter.evictions()).isZero();
+    }
+
+    @Test
+    void distinctKeyFloodStaysWithinCapacity() throws Exception {
+        StripedRateLimiter limiter = new StripedRateLimiter(1000, 600, 20);
+        assertThat(limiter.capacity()).isEqualTo(1024);
+
+        hammer(8, 1, () -> limiter.tryAcquire(Long.toHexString(ThreadLocalRandom.current().nextLong())));
+
+        assertThat(limiter.size()).isLessThanOrEqualTo(limiter.capacity());
+        assertThat(limiter.evictions()).isPositive();
+    }
+
+    @Test
+    void floodEvictsIdleBucketsBeforeActiveOnes() {
+        // one stripe of WAYS slots
+        StripedRateLimiter limiter = new StripedRateLimiter(StripedRateLimiter.WAYS, 1, 2);
+        assertThat(limiter.tryAcquire("hot")).isZero();
+        assertThat(limiter.tryAcquire("hot")).isZero();
+        for (int i = 0; i < 1000; i++) {
+            limiter.tryAcquire("flood-" + i);
+            // the hot key stays most recently used, so it is never the victim and never gets a fresh burst
+            assertThat(limiter.tryAcquire("hot")).isPositive();
+        }
+        assertThat(limiter.size()).isEqualTo(StripedRateLimiter.WAYS);
+        assertThat(limiter.evictions()).isEqualTo(1000 - (StripedRateLimiter.WAYS - 1));
+    }
+
+    /** Runs the call from the given threads for the given seconds; returns the elapsed nanoseconds. */
+    private static long hammer(int threads, int seconds, Runnable call) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                go.await();
+                while (System.nanoTime() - deadline < 0) call.run();
+                return null;
+            }));
+        }
+        long t0 = System.nanoTime();
+        go.countDown();
+        try {
+            for (Future<?> f : futures) f.get();
+        } finally {
+            pool.shutdown();
+        }
+        return System.nanoTime() - t0;
+    }
+}
@@ -11,7 +11,7 @@ echo "Java version:"
 java -version
 
 # Check if JAR exists
-JAR_FILE="target/FinJar-0.0.1-SNAPSHOT.jar"
+JAR_FILE="target/FinJar-0.0.1-SNAPSHOT-exec.jar"
 if [ ! -f "$JAR_FILE" ]; then
     echo "ERROR: JAR file not found at $JAR_FILE"
     echo "Current directory: $(pwd)"
@@ -18,9 +18,29 @@ import {
   ArrowDown
 } from 'lucide-react';
 
+// Start of the selected reporting period (local time)
+const periodStart = (period, now) => {
+  switch (period) {
+    case 'month':
+      return new Date(now.getFullYear(), now.getMonth(), 1);
+    case 'quarter':
+      return new Date(now.getFullYear(), Math.floor(now.getMonth() / 3) * 3, 1);
+    case 'year':
+      return new Date(now.getFullYear(), 0, 1);
+    default:
+      return null;
+  }
+};
+
+// yyyy-MM-dd from local date parts (null passes through)
+const toIsoDate = (d) => d
+  ? `${d.getFullYear()}-${String(d.getMonth() + 1).padStart(2, '0')}-${String(d.getDate()).padStart(2, '0')}`
+  : undefined;
+
 const Reports = ({ isDarkMode = false }) => {
   const [jars, setJars] = useState([]);
-  const [deposits, setDeposits] = useState([]);
+  const [periodSummary, setPeriodSummary] = useState(null);
+  const [trendSummary, setTrendSummary] = useState(null);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState(null);
   const [refreshing, setRefreshing] = useState(false);
@@ -65,75 +85,38 @@ const Reports = ({ isDarkMode = false }) => {
     }
   }, [getAuthToken]);
 
-  // Fetch all deposits for all jars
-  const fetchAllDeposits = useCallback(async () => {
+  // Fetch aggregated deposit totals from the server (two requests instead of one per jar)
+  const fetchSummaries = useCallback(async () => {
     try {
       if (!getAuthToken() || jars.length === 0) return;
-      const all = await Promise.all(jars.map(async jar => {
-        try {
-          const deps = await api.getDeposits(jar.id);
-          return deps.map(d => ({
-            id: d.id,
-            amount: d.amount ?? 0,
-            date: d.createdAt ? new Date(d.createdAt).toISOString() : (d.date || new Date().toISOString()),
-            jarId: jar.id,
-            jarTitle: jar.title
-          }));
-        } catch (e) {
-          console.warn('Failed to fetch deposits for jar', jar.id, e);
-          return [];
-        }
-      }));
-      setDeposits(all.flat());
+      const now = new Date();
+      const [period, trend] = await Promise.all([
+        api.getReportSummary({
+          from: toIsoDate(periodStart(selectedPeriod, now)),
+          jarId: selectedJar === 'all' ? undefined : selectedJar
+        }),
+        api.getReportSummary({ from: toIsoDate(new Date(now.getFullYear(), now.getMonth() - 5, 1)) })
+      ]);
+      setPeriodSummary(period);
+      setTrendSummary(trend);
     } catch (err) {
-      console.error('Error fetching all deposits:', err);
+      console.error('Error fetching report summary:', err);
     }
-  }, [jars, getAuthToken]);
+  }, [jars, selectedPeriod, selectedJar, getAuthToken]);
 
   // Calculate report data based on filters
   const calculateReportData = useCallback(() => {
     if (jars.length === 0) return null;
 
     const now = new Date();
-    let startDate = new Date(0); // Beginning of time
-
-    // Filter by period
-   // ...existing code...
-
-// Filter by period
-switch (selectedPeriod) {
-  case 'month':
-    startDate = new Date(now.getFullYear(), now.getMonth(), 1);
-    break;
-  case 'quarter': {
-    const quarterStart = Math.floor(now.getMonth() / 3) * 3;
-    startDate = new Date(now.getFullYear(), quarterStart, 1);
-    break;
-  }
-  case 'year':
-    startDate = new Date(now.getFullYear(), 0, 1);
-    break;
-  default:
-    startDate = new Date(0);
-}
-
-// ...existing code...
 
     // Filter jars
     const filteredJars = selectedJar === 'all' ? jars : jars.filter(jar => jar.id.toString() === selectedJar);
-    
-    // Filter deposits
-    const filteredDeposits = deposits.filter(deposit => {
-      const depositDate = new Date(deposit.date);
-      const isInPeriod = depositDate >= startDate;
-      const isInJar = selectedJar === 'all' || deposit.jarId.toString() === selectedJar;
-      return isInPeriod && isInJar;
-    });
 
     // Calculate totals
     const totalSaved = filteredJars.reduce((sum, jar) => sum + (jar.savedAmount || 0), 0);
     const totalTarget = filteredJars.reduce((sum, jar) => sum + (jar.targetAmount || 0), 0);
-    const totalDeposits = filteredDeposits.reduce((sum, deposit) => sum + (deposit.amount || 0), 0);
+    const totalDeposits = periodSummary?.totals?.amount || 0;
     const avgProgress = filteredJars.length > 0 
       ? filteredJars.reduce((sum, jar) => {
           const progress = jar.targetAmount > 0 ? (jar.savedAmount / jar.targetAmount) * 100 : 0;
@@ -151,23 +134,17 @@ switch (selectedPeriod) {
       remaining: Math.max(0, (jar.targetAmount || 0) - (jar.savedAmount || 0))
     })).sort((a, b) => b.progress - a.progress);
 
-    // Monthly trend (last 6 months)
+    // Monthly trend (last 6 months), buckets keyed 'yyyy-MM' by the server
+    const byMonth = {};
+    (trendSummary?.months || []).forEach(m => { byMonth[m.month] = m; });
     const monthlyTrend = [];
     for (let i = 5; i >= 0; i--) {
       const monthDate = new Date(now.getFullYear(), now.getMonth() - i, 1);
-      const monthEnd = new Date(now.getFullYear(), now.getMonth() - i + 1, 0);
-      
-      const monthDeposits = deposits.filter(deposit => {
-        const depositDate = new Date(deposit.date);
-        return depositDate >= monthDate && depositDate <= monthEnd;
-      });
-      
-      const monthTotal = monthDeposits.reduce((sum, deposit) => sum + (deposit.amount || 0), 0);
-      
+      const bucket = byMonth[toIsoDate(monthDate).slice(0, 7)];
       monthlyTrend.push({
         month: monthDate.toLocaleDateString('en-IN', { month: 'short', year: 'numeric' }),
-        amount: monthTotal,
-        deposits: monthDeposits.length
+        amount: bucket ? bucket.amount : 0,
+        deposits: bucket ? bucket.deposits : 0
       });
     }
 
@@ -178,14 +155,13 @@ switch (selectedPeriod) {
         totalDeposits,
         avgProgress,
         jarCount: filteredJars.length,
-        depositCount: filteredDeposits.length
+        depositCount: periodSummary?.totals?.deposits || 0
       },
       jarPerformance,
       monthlyTrend,
-      filteredJars,
-      filteredDeposits
+      filteredJars
     };
-  }, [jars, deposits, selectedPeriod, selectedJar]);
+  }, [jars, periodSummary, trendSummary, selectedJar]);
 
   useEffect(() => {
     if (!hasFetchedData.current) {
@@ -196,9 +172,9 @@ switch (selectedPeriod) {
 
   useEffect(() => {
     if (jars.length > 0) {
-      fetchAllDeposits();
+      fetchSummaries();
     }
-  }, [jars, fetchAllDeposits]);
+  }, [jars, fetchSummaries]);
 
   const memoReport = useMemo(() => calculateReportData(), [calculateReportData]);
   useEffect(() => { setReportData(memoReport); }, [memoReport]);
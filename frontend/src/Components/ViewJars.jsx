@@ -36,6 +36,8 @@ const ViewJars = ({ isDarkMode = false }) => {
   const [deleteConfirmInput, setDeleteConfirmInput] = useState('');
 
   const hasFetchedJars = useRef(false);
+  // true while /api/stream/jars is connected; balance changes then arrive as events instead of local patches
+  const streamOpen = useRef(false);
 
   const ensureToken = () => {
     const token = localStorage.getItem('token') || localStorage.getItem('authToken');
@@ -124,12 +126,7 @@ const ViewJars = ({ isDarkMode = false }) => {
       const token = ensureToken();
       if (!token) return;
       const data = await api.getJars();
-      setJars(Array.isArray(data) ? data.map(j => ({
-        id: j.id,
-        title: j.name || j.title || 'Unnamed Jar',
-        targetAmount: j.targetAmount || 0,
-        savedAmount: j.currentAmount || j.savedAmount || 0
-      })) : []);
+      setJars(Array.isArray(data) ? data.map(toJar) : []);
     } catch (err) {
       setError(err.message || 'Failed to fetch jars');
     } finally {
@@ -153,11 +150,85 @@ const ViewJars = ({ isDarkMode = false }) => {
     }
   };
 
+  const toJar = (j) => ({
+    id: j.id,
+    title: j.name || j.title || 'Unnamed Jar',
+    targetAmount: j.targetAmount || 0,
+    savedAmount: j.currentAmount || j.savedAmount || 0
+  });
+
+  const patchBalance = (jarId, delta) => {
+    setJars(prev => prev.map(j => j.id === jarId ? { ...j, savedAmount: j.savedAmount + delta } : j));
+    setSelectedJar(prev => prev && prev.id === jarId ? { ...prev, savedAmount: prev.savedAmount + delta } : prev);
+  };
+
   useEffect(() => {
-    if (!hasFetchedJars.current) {
-      hasFetchedJars.current = true;
-      fetchJars();
+    const token = localStorage.getItem('token') || localStorage.getItem('authToken');
+    const fetchOnce = () => {
+      if (!hasFetchedJars.current) {
+        hasFetchedJars.current = true;
+        fetchJars();
+      }
+    };
+    if (!token || typeof EventSource === 'undefined') {
+      fetchOnce();
+      return undefined;
+    }
+    // Full list once per (re)connect, then small patches pushed by the server. The stream URL carries a
+    // single-use ticket, never the JWT, so every (re)connect first asks for a new ticket.
+    let es = null;
+    let retry = null;
+    let closed = false;
+    const reconnect = (ms) => { retry = setTimeout(connect, ms); };
+    async function connect() {
+      let ticket = null;
+      let status = 0;
+      try {
+        const resp = await fetch(`${api.baseURL}/api/stream/tickets`, {
+          method: 'POST',
+          headers: { Authorization: `Bearer ${token}` }
+        });
+        status = resp.status;
+        if (resp.ok) ticket = (await resp.json()).ticket;
+      } catch {
+        // offline: retried below
+      }
+      if (closed) return;
+      if (!ticket) {
+        fetchOnce();
+        if (status !== 401) reconnect(15000);
+        return;
+      }
+      const source = new EventSource(`${api.baseURL}/api/stream/jars?ticket=${encodeURIComponent(ticket)}`);
+      es = source;
+      const on = (name, fn) => source.addEventListener(name, (e) => fn(JSON.parse(e.data || '{}')));
+      on('ready', () => { streamOpen.current = true; hasFetchedJars.current = true; fetchJars(); });
+      on('resync', () => fetchJars());
+      on('balance', ({ jarId, delta }) => patchBalance(jarId, delta || 0));
+      on('created', ({ jar }) => setJars(prev => prev.some(j => j.id === jar.id) ? prev : [...prev, toJar(jar)]));
+      on('updated', ({ jar }) => {
+        setJars(prev => prev.map(j => j.id === jar.id ? toJar(jar) : j));
+        setSelectedJar(prev => prev && prev.id === jar.id ? toJar(jar) : prev);
+      });
+      on('deleted', ({ jarId }) => {
+        setJars(prev => prev.filter(j => j.id !== jarId));
+        setSelectedJar(prev => prev && prev.id === jarId ? null : prev);
+      });
+      source.onerror = () => {
+        // EventSource would retry with the used ticket; reconnect with a new one. Until then, mutations patch locally
+        streamOpen.current = false;
+        source.close();
+        fetchOnce();
+        if (!closed) reconnect(3000);
+      };
     }
+    connect();
+    return () => {
+      closed = true;
+      clearTimeout(retry);
+      streamOpen.current = false;
+      if (es) es.close();
+    };
   }, []);
 
   useEffect(() => {
@@ -181,8 +252,7 @@ const ViewJars = ({ isDarkMode = false }) => {
       if (resp.ok) {
         setDepositAmount('');
         await fetchDeposits(selectedJar.id);
-        setSelectedJar(prev => ({ ...prev, savedAmount: prev.savedAmount + amount }));
-        setJars(prev => prev.map(j => j.id === selectedJar.id ? { ...j, savedAmount: j.savedAmount + amount } : j));
+        if (!streamOpen.current) patchBalance(selectedJar.id, amount);
       } else if (resp.status === 401) {
         setDepositError('Session expired.');
       } else {
@@ -205,10 +275,7 @@ const ViewJars = ({ isDarkMode = false }) => {
       });
       if (resp.ok) {
         const deleted = deposits.find(d => d.id === depositId);
-        if (deleted) {
-          setSelectedJar(prev => ({ ...prev, savedAmount: prev.savedAmount - deleted.amount }));
-          setJars(prev => prev.map(j => j.id === selectedJar.id ? { ...j, savedAmount: j.savedAmount - deleted.amount } : j));
-        }
+        if (deleted && !streamOpen.current) patchBalance(selectedJar.id, -deleted.amount);
         await fetchDeposits(selectedJar.id);
       }
     } catch {/* ignore */}
@@ -24,6 +24,9 @@ const config = {
       create: '/api/deposits',
       update: '/api/deposits',
       delete: '/api/deposits'
+    },
+    report: {
+      summary: '/api/reports/summary'
     }
   }
 };
@@ -165,6 +165,18 @@ class ApiService {
       method: 'DELETE'
     });
   }
+
+  // Report methods
+  // params: { from?: 'yyyy-MM-dd', to?: 'yyyy-MM-dd', jarId? }
+  async getReportSummary(params = {}) {
+    const query = new URLSearchParams();
+    Object.entries(params).forEach(([k, v]) => {
+      if (v !== undefined && v !== null && v !== '') query.append(k, v);
+    });
+    const qs = query.toString();
+    const data = await this.request(`${config.endpoints.report.summary}${qs ? `?${qs}` : ''}`);
+    return data && data.summary ? data.summary : { totals: { amount: 0, deposits: 0 }, jars: [], months: [] };
+  }
 }
 
 export default new ApiService();